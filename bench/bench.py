@@ -0,0 +1,93 @@
+"""Helpers shared by the load scripts: plain HTTP calls, test data and a closed-loop load runner."""
+import datetime
+import json
+import random
+import threading
+import time
+import urllib.error
+import urllib.request
+
+SERVER = "http://localhost:9090"
+GATEWAY = "http://localhost:8080"
+
+
+def call(base, method, path, body=None, user=None, headers=None):
+    data = json.dumps(body).encode() if body is not None else None
+    request = urllib.request.Request(base + path, data=data, method=method)
+    request.add_header("Content-Type", "application/json")
+    if user is not None:
+        request.add_header("X-Sharer-User-Id", str(user))
+    for name, value in (headers or {}).items():
+        request.add_header(name, value)
+    try:
+        with urllib.request.urlopen(request) as response:
+            raw = response.read()
+            return response.status, raw
+    except urllib.error.HTTPError as e:
+        return e.code, e.read()
+
+
+def call_json(base, method, path, body=None, user=None):
+    status, raw = call(base, method, path, body, user)
+    if status != 200:
+        raise RuntimeError(f"{method} {path}: {status} {raw[:200]!r}")
+    return json.loads(raw) if raw else None
+
+
+def iso(days):
+    return (datetime.datetime.now() + datetime.timedelta(days=days)).strftime("%Y-%m-%dT%H:%M:%S")
+
+
+def user(base=SERVER):
+    tag = random.randint(0, 10 ** 12)
+    return call_json(base, "POST", "/users", {"name": f"bench {tag}", "email": f"bench{tag}@bench.ru"})["id"]
+
+
+def items(owner, count, base=SERVER):
+    return [call_json(base, "POST", "/items",
+                      {"name": f"Bench item {k}", "description": f"bench description {k}", "available": True},
+                      owner)["id"]
+            for k in range(count)]
+
+
+def bookings(booker, item_ids, per_item, base=SERVER):
+    for item_id in item_ids:
+        for k in range(per_item):
+            call_json(base, "POST", "/bookings",
+                      {"itemId": item_id, "start": iso(10 + k), "end": iso(10.5 + k)}, booker)
+
+
+def run(threads, seconds, request):
+    """Runs request() from `threads` threads for `seconds`; returns req/s, p50 and p99 in ms and the error count."""
+    latencies = []
+    errors = [0]
+    lock = threading.Lock()
+    deadline = time.perf_counter() + seconds
+
+    def worker():
+        mine = []
+        failed = 0
+        while time.perf_counter() < deadline:
+            started = time.perf_counter()
+            if not request():
+                failed += 1
+            mine.append(time.perf_counter() - started)
+        with lock:
+            latencies.extend(mine)
+            errors[0] += failed
+
+    workers = [threading.Thread(target=worker) for _ in range(threads)]
+    started = time.perf_counter()
+    for worker_thread in workers:
+        worker_thread.start()
+    for worker_thread in workers:
+        worker_thread.join()
+    elapsed = time.perf_counter() - started
+    latencies.sort()
+    n = len(latencies)
+    return {
+        "rps": round(n / elapsed),
+        "p50_ms": round(1000 * latencies[n // 2], 1),
+        "p99_ms": round(1000 * latencies[min(n - 1, int(n * 0.99))], 1),
+        "errors": errors[0],
+    }
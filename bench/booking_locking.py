@@ -0,0 +1,71 @@
+"""
+Contention benchmark for the booking write guard (user-009): POST /bookings on the server, with every
+thread on its own item and with all threads on one item, then concurrent approvals of one booking.
+Run once per shareit.booking.locking.mode.
+
+    python3 bench/booking_locking.py [threads] [seconds]
+"""
+import itertools
+import sys
+import threading
+
+from bench import SERVER, call, iso, items, run, user
+
+threads = int(sys.argv[1]) if len(sys.argv) > 1 else 16
+seconds = int(sys.argv[2]) if len(sys.argv) > 2 else 15
+
+owner = user()
+booker = user()
+item_ids = items(owner, threads)
+slots = itertools.count()
+slot_lock = threading.Lock()
+local = threading.local()
+
+
+def next_slot():
+    with slot_lock:
+        return next(slots)
+
+
+def book(item_id):
+    # one-hour slots that never overlap, so every rejection is contention, not a conflict of times
+    slot = next_slot()
+    status, _ = call(SERVER, "POST", "/bookings",
+                     {"itemId": item_id, "start": iso(1 + slot / 24), "end": iso(1 + (slot + 0.5) / 24)}, booker)
+    return status == 200
+
+
+def own_item():
+    if not hasattr(local, "item_id"):
+        local.item_id = item_ids[next_slot() % len(item_ids)]
+    return book(local.item_id)
+
+
+def same_item():
+    return book(item_ids[0])
+
+
+for name, request in (("distinct items", own_item), ("one item", same_item)):
+    print(name, threads, "threads", run(threads, seconds, request))
+
+# approvals: a fresh WAITING booking approved by all threads at once, exactly one may succeed
+approved = []
+for _ in range(20):
+    slot = next_slot()
+    status, raw = call(SERVER, "POST", "/bookings",
+                       {"itemId": item_ids[1], "start": iso(400 + slot), "end": iso(400.5 + slot)}, booker)
+    booking_id = raw.decode().split('"id":')[1].split(",")[0]
+    results = []
+    barrier = threading.Barrier(threads)
+
+    def approve():
+        barrier.wait()
+        results.append(call(SERVER, "PATCH", f"/bookings/{booking_id}?approved=true", user=owner)[0])
+
+    workers = [threading.Thread(target=approve) for _ in range(threads)]
+    for worker in workers:
+        worker.start()
+    for worker in workers:
+        worker.join()
+    approved.append(results.count(200))
+print("concurrent approvals,", threads, "threads x 20 bookings: successes per booking", sorted(set(approved)))
@@ -0,0 +1,32 @@
+"""
+p99 under concurrent load through the gateway (user-016): GET /items/{id} and GET /bookings, to compare
+gateway builds or transport settings against the same server.
+
+    python3 bench/gateway_transport.py [threads] [seconds]
+"""
+import random
+import sys
+
+from bench import GATEWAY, SERVER, bookings, call, items, run, user
+
+threads = int(sys.argv[1]) if len(sys.argv) > 1 else 50
+seconds = int(sys.argv[2]) if len(sys.argv) > 2 else 20
+
+owner = user()
+booker = user()
+item_ids = items(owner, 20)
+bookings(booker, item_ids[:5], 4)
+
+
+def get_item():
+    return call(GATEWAY, "GET", f"/items/{random.choice(item_ids)}", user=owner)[0] == 200
+
+
+def list_bookings():
+    return call(GATEWAY, "GET", "/bookings?state=ALL&from=0&size=20", user=booker)[0] == 200
+
+
+for name, request in (("/items/{id}", get_item), ("/bookings", list_bookings)):
+    run(threads, 10, request)
+    for _ in range(3):
+        print(name, threads, "threads", run(threads, seconds, request))
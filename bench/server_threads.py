@@ -0,0 +1,31 @@
+"""
+Load test for shareit.server.threads (user-024): throughput of GET /bookings and GET /items/search
+on the server, to be run once per mode against the same database.
+
+    python3 bench/server_threads.py [threads] [seconds]
+"""
+import random
+import sys
+
+from bench import SERVER, bookings, call, items, run, user
+
+threads = int(sys.argv[1]) if len(sys.argv) > 1 else 64
+seconds = int(sys.argv[2]) if len(sys.argv) > 2 else 20
+
+owner = user()
+booker = user()
+item_ids = items(owner, 50)
+bookings(booker, item_ids, 4)
+
+
+def list_bookings():
+    return call(SERVER, "GET", "/bookings?state=ALL&from=0&size=20", user=booker)[0] == 200
+
+
+def search():
+    return call(SERVER, "GET", f"/items/search?text=description+{random.randint(0, 49)}&from=0&size=20")[0] == 200
+
+
+for name, request in (("/bookings", list_bookings), ("/items/search", search)):
+    run(threads, 3, request)
+    print(name, threads, "threads", run(threads, seconds, request))
@@ -0,0 +1,65 @@
+"""
+Wire format between gateway and server (user-022): bytes of the item and booking pages in each format,
+and CPU and latency of both pages through the gateway. Run once per shareit-server.client.wire-format.
+
+    python3 bench/wire_format.py [threads] [seconds]
+"""
+import os
+import sys
+
+from bench import GATEWAY, SERVER, bookings, call, items, run, user
+
+threads = int(sys.argv[1]) if len(sys.argv) > 1 else 20
+seconds = int(sys.argv[2]) if len(sys.argv) > 2 else 20
+
+owner = user()
+booker = user()
+item_ids = items(owner, 20)
+bookings(booker, item_ids, 1)
+PAGES = {
+    "items": ("/items?from=0&size=20", owner),
+    "bookings": ("/bookings?state=ALL&from=0&size=20", booker),
+}
+TYPES = {"json": "application/json", "smile": "application/x-jackson-smile"}
+
+
+def java_pid(jar):
+    for pid in filter(str.isdigit, os.listdir("/proc")):
+        try:
+            with open(f"/proc/{pid}/cmdline", "rb") as cmdline:
+                args = cmdline.read().split(b"\0")
+        except OSError:
+            continue
+        if args[0].endswith(b"java") and any(jar.encode() in arg for arg in args):
+            return pid
+    raise RuntimeError(f"No java process runs {jar}")
+
+
+def cpu_seconds(jar):
+    with open(f"/proc/{java_pid(jar)}/stat") as stat:
+        fields = stat.read().rsplit(")", 1)[1].split()
+    return (int(fields[11]) + int(fields[12])) / os.sysconf("SC_CLK_TCK")
+
+
+for page, (path, caller) in PAGES.items():
+    sizes = []
+    for name, media_type in TYPES.items():
+        for encoding in ("identity", "gzip"):
+            status, raw = call(SERVER, "GET", path, user=caller,
+                               headers={"Accept": media_type, "Accept-Encoding": encoding})
+            sizes.append(f"{name}/{encoding} {len(raw)} B")
+    print(page, "page from the server:", ", ".join(sizes))
+
+for page, (path, caller) in PAGES.items():
+    def request():
+        return call(GATEWAY, "GET", path, user=caller)[0] == 200
+
+    run(threads, 10, request)
+    server_cpu, gateway_cpu = cpu_seconds("shareit-server"), cpu_seconds("shareit-gateway")
+    result = run(threads, seconds, request)
+    server_cpu = cpu_seconds("shareit-server") - server_cpu
+    gateway_cpu = cpu_seconds("shareit-gateway") - gateway_cpu
+    requests = result["rps"] * seconds
+    result["server_cpu_ms_per_req"] = round(1000 * server_cpu / requests, 2)
+    result["gateway_cpu_ms_per_req"] = round(1000 * gateway_cpu / requests, 2)
+    print(page, "page through the gateway,", threads, "threads", result)
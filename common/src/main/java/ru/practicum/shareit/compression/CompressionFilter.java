@@ -0,0 +1,365 @@
+package ru.practicum.shareit.compression;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses of at least {@code shareit.compression.min-size} bytes with gzip or deflate,
+ * whichever the caller accepts (gzip first). The ratio of compressed to original size and the CPU time spent
+ * are recorded as http.server.compression.ratio and http.server.compression.cpu per encoding.
+ * Shared by the gateway and the server.
+ * <p>
+ * Only the first {@code min-size} bytes of a body are held back: by then the content type is set and the size
+ * threshold is met, so the rest is compressed on the fly as it is written, or passed through unchanged.
+ * A response never occupies more than that much heap here, whatever its size.
+ */
+@Component
+public class CompressionFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final boolean enabled;
+    private final int minSize;
+    private final List<MediaType> mimeTypes;
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public CompressionFilter(@Value("${shareit.compression.enabled:true}") boolean enabled,
+                             @Value("${shareit.compression.min-size:1024}") int minSize,
+                             @Value("${shareit.compression.mime-types:application/json}") List<MediaType> mimeTypes,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minSize = Math.max(1, minSize);
+        this.mimeTypes = mimeTypes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = enabled ? negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+        if (encoding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse wrapper = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (wrapper == null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            wrapper = new CompressingResponse(response, encoding);
+        }
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                wrapper.finish();
+            }
+        }
+    }
+
+    private boolean isCompressible(@Nullable String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(type::isCompatibleWith);
+    }
+
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Picks gzip or deflate from Accept-Encoding, ignoring codings with q=0.
+     */
+    @Nullable
+    private static String negotiate(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (GZIP.equalsIgnoreCase(name)) {
+                return GZIP;
+            }
+            deflate |= DEFLATE.equalsIgnoreCase(name);
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    /**
+     * Holds the body back until {@link #minSize} bytes are in, then decides once: compress the rest as it comes,
+     * or pass everything through. Content-Length is held back too, since it is wrong for a compressed body.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final String encoding;
+        private ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private OutputStream target;
+        private DeflaterOutputStream deflater;
+        private CountingOutputStream compressed;
+        private long contentLength = -1;
+        private long bodySize;
+        private long cpuNanos;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        CompressingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        CompressingResponse.this.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        CompressingResponse.this.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new UnsupportedOperationException("Non-blocking writes are not compressed");
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) {
+                contentLength = len;
+            } else if (deflater == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            // an undecided body stays held back, it is at most min-size bytes
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (target == null) {
+                head.reset();
+                bodySize = 0;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (target == null) {
+                head.reset();
+                bodySize = 0;
+                contentLength = -1;
+            }
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            bodySize += len;
+            if (target == null) {
+                head.write(b, off, len);
+                if (head.size() >= minSize) {
+                    decide();
+                }
+            } else if (deflater != null) {
+                long start = cpuTime();
+                deflater.write(b, off, len);
+                cpuNanos += cpuTime() - start;
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        private void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        private void decide() throws IOException {
+            byte[] bytes = head.toByteArray();
+            head = null;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (bytes.length >= minSize && isCompressible(getContentType())
+                    && !response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+                compressed = new CountingOutputStream(response.getOutputStream());
+                long start = cpuTime();
+                deflater = GZIP.equals(encoding) ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed);
+                target = deflater;
+                deflater.write(bytes);
+                cpuNanos += cpuTime() - start;
+            } else {
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = response.getOutputStream();
+                target.write(bytes);
+            }
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (head.size() == 0 && contentLength < 0) {
+                    return;
+                }
+                decide();
+            }
+            if (deflater == null) {
+                return;
+            }
+            long start = cpuTime();
+            deflater.finish();
+            cpuNanos += cpuTime() - start;
+            Timer.builder("http.server.compression.cpu")
+                    .description("CPU time spent compressing response bodies")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry)
+                    .record(cpuNanos, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("http.server.compression.ratio")
+                    .description("Compressed to original size of response bodies")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry)
+                    .record((double) compressed.count / bodySize);
+            deflater = null;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
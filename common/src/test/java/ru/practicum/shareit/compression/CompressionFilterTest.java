@@ -0,0 +1,122 @@
+package ru.practicum.shareit.compression;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompressionFilter filter =
+            new CompressionFilter(true, 1024, List.of(MediaType.APPLICATION_JSON), meterRegistry);
+
+    @Test
+    void largeBodyIsGzipped() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse response = perform((request, out) -> {
+            out.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            out.setContentLength(body.length);
+            out.getOutputStream().write(body);
+        });
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(body, new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .readAllBytes());
+        assertEquals(1, meterRegistry.get("http.server.compression.ratio").tag("encoding", "gzip")
+                .summary().count());
+    }
+
+    @Test
+    void smallBodyIsPassedThrough() throws Exception {
+        byte[] body = json(10);
+        MockHttpServletResponse response = perform((request, out) -> {
+            out.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            out.setContentLength(body.length);
+            out.getOutputStream().write(body);
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void bodyIsCompressedAsItIsWritten() throws Exception {
+        AtomicInteger writtenBeforeEnd = new AtomicInteger();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        perform(response, (request, out) -> {
+            out.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            for (int i = 0; i < 20_000; i++) {
+                out.getOutputStream().write(("{\"id\":" + i + "},").getBytes(StandardCharsets.UTF_8));
+            }
+            writtenBeforeEnd.set(response.getContentAsByteArray().length);
+        });
+
+        assertTrue(writtenBeforeEnd.get() > 0);
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void encodedBodyIsLeftAlone() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse response = perform((request, out) -> {
+            out.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            out.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+            out.setContentLength(body.length);
+            out.getOutputStream().write(body);
+        });
+
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse perform(Handler handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        perform(response, handler);
+        return response;
+    }
+
+    private void perform(MockHttpServletResponse response, Handler handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                handler.handle(req, resp);
+            }
+        }));
+    }
+
+    private static byte[] json(int items) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"Item\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import javax.validation.constraints.Positive;
+import java.util.List;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class BatchController {
+    private final BatchService batchService;
+
+    @PostMapping
+    public Mono<List<BatchResponseDto>> execute(@Positive @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestBody List<BatchRequestDto> requests) {
+        log.info("Batch of {} requests, userId={}", requests.size(), userId);
+        return batchService.execute(userId, requests);
+    }
+}
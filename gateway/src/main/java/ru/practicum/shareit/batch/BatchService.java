@@ -0,0 +1,207 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.request.RequestController;
+import ru.practicum.shareit.user.UserController;
+
+import javax.validation.ConstraintViolationException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Runs the reads of one screen in a single round trip. Every sub-request is routed to the controller method
+ * that serves the same GET path, so parameter defaults and validation are the controllers' own, and all
+ * sub-requests are sent to the server concurrently. Results keep the order of the sub-requests.
+ * Each sub-request also takes a token from the caller's rate limit of its controller, as the same call made
+ * directly would, and gets its own 429 when that limit is spent.
+ */
+@Slf4j
+@Service
+public class BatchService {
+    private static final Map<String, String> CONTROLLERS = Map.of(
+            "users", "user",
+            "items", "item",
+            "bookings", "booking",
+            "requests", "request");
+
+    private final UserController userController;
+    private final ItemController itemController;
+    private final BookingController bookingController;
+    private final RequestController requestController;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final int maxRequests;
+
+    public BatchService(UserController userController,
+                        ItemController itemController,
+                        BookingController bookingController,
+                        RequestController requestController,
+                        RateLimiter rateLimiter,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.batch.max-requests:20}") int maxRequests) {
+        this.userController = userController;
+        this.itemController = itemController;
+        this.bookingController = bookingController;
+        this.requestController = requestController;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.maxRequests = maxRequests;
+    }
+
+    public Mono<List<BatchResponseDto>> execute(Long userId, List<BatchRequestDto> requests) {
+        if (requests.isEmpty()) {
+            throw new IncorrectDataException("Batch is empty");
+        }
+        if (requests.size() > maxRequests) {
+            throw new IncorrectDataException(String.format("Batch can't have more than %d requests", maxRequests));
+        }
+        if (requests.stream().anyMatch(Objects::isNull)) {
+            throw new IncorrectDataException("Batch requests can't be null");
+        }
+        return Flux.fromIterable(requests)
+                .flatMapSequential(request -> Mono.defer(() -> route(userId, request.getPath()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(response -> toDto(request.getId(), response))
+                        .onErrorResume(e -> Mono.just(toDto(request.getId(), e))))
+                .collectList();
+    }
+
+    private Mono<ResponseEntity<Object>> route(Long userId, String path) {
+        if (path == null || path.isBlank()) {
+            throw new IncorrectDataException("Path is required");
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        List<String> segments = uri.getPathSegments();
+        MultiValueMap<String, String> query = uri.getQueryParams();
+        String root = segments.isEmpty() ? "" : segments.get(0);
+        String second = segments.size() > 1 ? segments.get(1) : null;
+        if (segments.size() > 2) {
+            return notFound(path);
+        }
+        String controller = CONTROLLERS.get(root);
+        if (controller == null) {
+            return notFound(path);
+        }
+        long wait = rateLimiter.tryAcquire(controller, String.valueOf(userId));
+        if (wait > 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RateLimitInterceptor.retryAfterSeconds(wait))
+                    .body(RateLimitInterceptor.TOO_MANY_REQUESTS));
+        }
+        switch (root) {
+            case "users":
+                return second == null
+                        ? userController.getAllUsers()
+                        : userController.getUserById(Long.valueOf(second));
+            case "items":
+                if (second == null) {
+                    return itemController.getAllByOwnerId(userId);
+                }
+                if (second.equals("search")) {
+                    return itemController.searchAvailableItemsByText(userId,
+                            param(query, "text", ""),
+                            param(query, "from", "0", Long::valueOf),
+                            param(query, "size", "10", Long::valueOf));
+                }
+                return itemController.getItem(Long.valueOf(second), userId);
+            case "bookings":
+                if (second == null || second.equals("owner")) {
+                    String state = param(query, "state", "all");
+                    Integer from = param(query, "from", "0", Integer::valueOf);
+                    Integer size = param(query, "size", "10", Integer::valueOf);
+                    Long after = param(query, "after", null, Long::valueOf);
+                    return second == null
+                            ? bookingController.getBookingsForUser(userId, state, from, size, after)
+                            : bookingController.getBookingsForOwner(userId, state, from, size, after);
+                }
+                return bookingController.getBooking(userId, Long.valueOf(second));
+            case "requests":
+                if (second == null) {
+                    return requestController.getAllForUser(userId);
+                }
+                if (second.equals("all")) {
+                    return requestController.getAll(userId,
+                            param(query, "from", "0", Integer::valueOf),
+                            param(query, "size", "10", Integer::valueOf));
+                }
+                return requestController.getById(userId, Long.valueOf(second));
+            default:
+                return notFound(path);
+        }
+    }
+
+    private static Mono<ResponseEntity<Object>> notFound(String path) {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body("No batch route for " + path));
+    }
+
+    private static String param(MultiValueMap<String, String> query, String name, String defaultValue) {
+        String value = query.getFirst(name);
+        return value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : defaultValue;
+    }
+
+    private static <T> T param(MultiValueMap<String, String> query, String name, String defaultValue,
+                               Function<String, T> parser) {
+        String value = param(query, name, defaultValue);
+        return value != null ? parser.apply(value) : null;
+    }
+
+    private BatchResponseDto toDto(String id, ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        String json;
+        if (body == null) {
+            json = null;
+        } else if (body instanceof byte[]) {
+            String text = new String((byte[]) body, StandardCharsets.UTF_8);
+            MediaType contentType = response.getHeaders().getContentType();
+            json = contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                    ? text
+                    : writeJson(text);
+        } else {
+            json = writeJson(body);
+        }
+        return new BatchResponseDto(id, response.getStatusCodeValue(), json);
+    }
+
+    private BatchResponseDto toDto(String id, Throwable e) {
+        if (e instanceof ConstraintViolationException
+                || e instanceof IncorrectDataException
+                || e instanceof IllegalArgumentException) {
+            return new BatchResponseDto(id, HttpStatus.BAD_REQUEST.value(), writeJson(e.getMessage()));
+        }
+        log.warn("Batch request {} failed", id, e);
+        return new BatchResponseDto(id, HttpStatus.INTERNAL_SERVER_ERROR.value(), writeJson(e.getMessage()));
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchRequestDto {
+    private String id;
+    /**
+     * Gateway path of a read, with query string, e.g. /bookings/owner?state=WAITING.
+     */
+    private String path;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchResponseDto {
+    private String id;
+    private int status;
+    @JsonRawValue
+    private String body;
+}
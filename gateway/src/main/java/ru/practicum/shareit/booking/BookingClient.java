@@ -1,15 +1,14 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.exception.IncorrectDataException;
 
 import java.util.Map;
@@ -19,19 +18,23 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transportFactory, RequestCoalescer coalescer) {
+        super(transportFactory.create(API_PREFIX), coalescer);
     }
 
-    public ResponseEntity<Object> getBookings(String path, long userId, String stateParam, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(String path, long userId, String stateParam, Integer from, Integer size,
+                                              Long after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IncorrectDataException(String.format("{\"error\": \"Unknown state: %s\" }",
                         stateParam)));
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "after", after
+            );
+            return get(path + "?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -40,15 +43,15 @@ public class BookingClient extends BaseClient {
         return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approvedBooking(Long userId, Long bookingId, boolean isApproved) {
+    public Mono<ResponseEntity<Object>> approvedBooking(Long userId, Long bookingId, boolean isApproved) {
         return patch("/" + bookingId + "?approved=" + isApproved, userId,
                 Map.of("X-Sharer-User-Id", userId, "approved", isApproved));
     }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 
 import javax.validation.Valid;
@@ -28,44 +29,47 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approvedBooking(@Positive @PathVariable Long bookingId,
+    public Mono<ResponseEntity<Object>> approvedBooking(@Positive @PathVariable Long bookingId,
                                                   @RequestParam Boolean approved,
                                                   @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingClient.approvedBooking(userId, bookingId, approved);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsForUser(
+    public Mono<ResponseEntity<Object>> getBookingsForUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Get booking for user with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings("", userId, stateParam, from, size);
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @Positive @RequestParam(name = "after", required = false) Long after) {
+        log.info("Get booking for user with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getBookings("", userId, stateParam, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForOwner(
+    public Mono<ResponseEntity<Object>> getBookingsForOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @Positive @RequestParam(name = "after", required = false) Long after
     ) {
         log.info("Getting bookings for owner with id {} and state {}", userId, stateParam);
-        return bookingClient.getBookings("/owner", userId, stateParam, from, size);
+        return bookingClient.getBookings("/owner", userId, stateParam, from, size, after);
     }
 }
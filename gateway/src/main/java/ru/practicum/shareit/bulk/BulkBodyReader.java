@@ -0,0 +1,40 @@
+package ru.practicum.shareit.bulk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.exception.PayloadTooLargeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a bulk import body before it is forwarded to the server. Bodies over {@code shareit.bulk.max-body-size}
+ * are refused with 413, by their Content-Length when it is sent and otherwise once that many bytes were read,
+ * so one import can't fill the gateway's heap.
+ */
+@Component
+public class BulkBodyReader {
+    private final DataSize maxBodySize;
+
+    public BulkBodyReader(@Value("${shareit.bulk.max-body-size:10MB}") DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public byte[] read(InputStream body, @Nullable Long contentLength) throws IOException {
+        int max = Math.toIntExact(maxBodySize.toBytes());
+        if (contentLength != null && contentLength > max) {
+            throw tooLarge();
+        }
+        byte[] bytes = body.readNBytes(max + 1);
+        if (bytes.length > max) {
+            throw tooLarge();
+        }
+        return bytes;
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("Bulk body is larger than " + maxBodySize.toBytes() + " bytes");
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Count-based circuit breaker of one client. Opens when, over the last {@code window-size} calls, the share of
+ * failed (exception or 5xx) or slow calls reaches its threshold; after {@code open-duration} lets
+ * {@code half-open-calls} trial calls through and closes again only if all of them succeed.
+ * State is exported as gateway.client.circuit.state, transitions as gateway.client.circuit.transitions.
+ */
+@Slf4j
+class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String client;
+    private final ServerClientProperties.Breaker settings;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final AtomicInteger trialSuccesses = new AtomicInteger();
+    private final Window window;
+
+    CircuitBreaker(String client, ServerClientProperties.Breaker settings, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.window = new Window(settings.getWindowSize());
+        meterRegistry.gauge("gateway.client.circuit.state", Tags.of("client", client),
+                state, s -> s.get().ordinal());
+    }
+
+    /**
+     * @return whether a call may be sent now
+     */
+    boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt.get() < settings.getOpenDuration().toNanos()) {
+                return false;
+            }
+            if (transition(State.OPEN, State.HALF_OPEN)) {
+                trialSuccesses.set(0);
+                trialPermits.set(settings.getHalfOpenCalls());
+            }
+            current = state.get();
+        }
+        if (current == State.HALF_OPEN) {
+            return trialPermits.getAndUpdate(p -> p > 0 ? p - 1 : 0) > 0;
+        }
+        return current == State.CLOSED;
+    }
+
+    void onComplete(long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= settings.getSlowCallDuration().toNanos();
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (failed || slow) {
+                open(State.HALF_OPEN);
+            } else if (trialSuccesses.incrementAndGet() >= settings.getHalfOpenCalls()
+                    && transition(State.HALF_OPEN, State.CLOSED)) {
+                window.reset();
+            }
+        } else if (current == State.CLOSED && window.record(failed, slow, settings)) {
+            open(State.CLOSED);
+        }
+    }
+
+    private void open(State from) {
+        openedAt.set(System.nanoTime());
+        if (transition(from, State.OPEN)) {
+            window.reset();
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        log.info("Circuit of {} client: {} -> {}", client, from, to);
+        Counter.builder("gateway.client.circuit.transitions")
+                .description("Circuit breaker state changes")
+                .tag("client", client)
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+        return true;
+    }
+
+    /**
+     * Outcomes of the last calls in a ring, guarded by its own monitor since every update touches several counters.
+     */
+    private static class Window {
+        private static final byte FAILED = 1;
+        private static final byte SLOW = 2;
+
+        private final byte[] outcomes;
+        private int next;
+        private int size;
+        private int failures;
+        private int slowCalls;
+
+        Window(int capacity) {
+            this.outcomes = new byte[Math.max(1, capacity)];
+        }
+
+        /**
+         * @return whether the failure or slow call rate has reached its threshold
+         */
+        synchronized boolean record(boolean failed, boolean slow, ServerClientProperties.Breaker settings) {
+            if (size == outcomes.length) {
+                byte evicted = outcomes[next];
+                failures -= evicted & FAILED;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                size++;
+            }
+            outcomes[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+            failures += failed ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+            next = (next + 1) % outcomes.length;
+            return size >= settings.getMinimumCalls()
+                    && (failures * 100 >= settings.getFailureRateThreshold() * size
+                    || slowCalls * 100 >= settings.getSlowCallRateThreshold() * size);
+        }
+
+        synchronized void reset() {
+            next = 0;
+            size = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
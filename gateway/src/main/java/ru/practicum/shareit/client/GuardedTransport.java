@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulkhead and circuit breaker in front of one client's transport, so a slow or failing part of the server
+ * cannot take every gateway thread or connection. Calls over {@code bulkhead.max-concurrent-calls} and calls
+ * while the circuit is open are answered 503 at once without reaching the server; they are counted
+ * in gateway.client.rejected.
+ */
+public class GuardedTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long retryAfterSeconds;
+    private final Counter bulkheadRejected;
+    private final Counter circuitRejected;
+
+    public GuardedTransport(ServerTransport delegate, String client, ServerClientProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(client, properties.getCircuitBreaker(), meterRegistry);
+        this.retryAfterSeconds = Math.max(1, properties.getCircuitBreaker().getOpenDuration().toSeconds());
+        this.bulkheadRejected = rejectedCounter(meterRegistry, client, "bulkhead");
+        this.circuitRejected = rejectedCounter(meterRegistry, client, "circuit_open");
+        meterRegistry.gauge("gateway.client.bulkhead.available", Tags.of("client", client),
+                bulkhead, Semaphore::availablePermits);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                return Mono.just(unavailable("Too many concurrent requests to the server"));
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                bulkhead.release();
+                circuitRejected.increment();
+                return Mono.just(unavailable("Server is failing, requests are suspended"));
+            }
+            long start = System.nanoTime();
+            return delegate.exchange(method, path, headers, parameters, body)
+                    .doOnSuccess(response -> circuitBreaker.onComplete(System.nanoTime() - start,
+                            response == null || response.getStatusCode().is5xxServerError()))
+                    .doOnError(e -> circuitBreaker.onComplete(System.nanoTime() - start, true))
+                    .doOnCancel(() -> circuitBreaker.onComplete(System.nanoTime() - start, false))
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    private ResponseEntity<Object> unavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(message);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String client, String reason) {
+        return Counter.builder("gateway.client.rejected")
+                .description("Calls answered by the gateway without reaching the server")
+                .tag("client", client)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical reads: while a call for a key is in flight, further callers with the same key
+ * get its result instead of calling the server. Only endpoints listed in
+ * {@code shareit-server.client.coalescing.endpoints} are coalesced; gateway.coalescing.requests counts
+ * leaders (upstream calls) and followers (calls saved) per endpoint.
+ */
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> endpoints;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(@Value("${shareit-server.client.coalescing.endpoints:}") Set<String> endpoints,
+                            MeterRegistry meterRegistry) {
+        this.endpoints = Set.copyOf(endpoints);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String endpoint, String key,
+                                                 Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!endpoints.contains(endpoint)) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return call.get()
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            counter(endpoint, leader.get() ? "leader" : "follower").increment();
+            return shared;
+        });
+    }
+
+    private Counter counter(String endpoint, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("Coalescable reads by role: leader calls the server, follower reuses its result")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Blocking transport: the exchange runs on the subscribing (request) thread.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+    private final ServerWireFormat wireFormat;
+
+    public RestTemplateTransport(RestTemplate rest, boolean passthrough, ServerWireFormat wireFormat) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, headers, parameters, body));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        headers.setAccept(wireFormat.accept());
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (passthrough) {
+                return BaseClient.preparePassthroughResponse(wireFormat.toJson(parameters != null
+                        ? rest.exchange(path, method, requestEntity, byte[].class, parameters)
+                        : rest.exchange(path, method, requestEntity, byte[].class)));
+            }
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(wireFormat.toJson(
+                    new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(), e.getStatusCode())).getBody());
+        }
+        return BaseClient.prepareGatewayResponse(shareitServerResponse);
+    }
+}
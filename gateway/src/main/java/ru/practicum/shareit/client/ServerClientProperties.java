@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the connection pool shared by all clients of the ShareIt server.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    /**
+     * blocking (RestTemplate) or reactive (WebClient).
+     */
+    private String mode = "blocking";
+    /**
+     * Hand successful responses back as the server's raw bytes instead of parsing and re-serializing them.
+     */
+    private boolean passthrough = true;
+    /**
+     * json, or smile to have the server answer in Smile (binary JSON); end users always get JSON.
+     */
+    private String wireFormat = "json";
+    /**
+     * Send Accept-Encoding: gzip and inflate compressed responses.
+     */
+    private boolean compression = true;
+    private int maxConnections = 200;
+    /**
+     * Only the blocking pool distinguishes routes, the reactive pool is always per remote address.
+     */
+    private int maxConnectionsPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * How long a request may wait for a free pooled connection.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Bulkhead bulkhead = new Bulkhead();
+    private Breaker circuitBreaker = new Breaker();
+
+    public boolean isReactive() {
+        return "reactive".equalsIgnoreCase(mode);
+    }
+
+    public boolean isSmile() {
+        return "smile".equalsIgnoreCase(wireFormat);
+    }
+
+    /**
+     * Applies to each client (users, items, bookings, requests) separately.
+     */
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 50;
+    }
+
+    /**
+     * Applies to each client (users, items, bookings, requests) separately.
+     */
+    @Data
+    public static class Breaker {
+        /**
+         * Number of last calls the failure and slow call rates are taken over.
+         */
+        private int windowSize = 50;
+        /**
+         * Rates are not evaluated before the window holds this many calls.
+         */
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+    }
+}
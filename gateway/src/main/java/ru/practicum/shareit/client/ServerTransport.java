@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Sends one request to the ShareIt server. Error responses are not thrown,
+ * they come back with the server's status and raw body.
+ */
+public interface ServerTransport {
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the transport of each client. All clients share one connection pool, blocking (Apache HttpClient)
+ * or reactive (Reactor Netty) depending on {@code shareit-server.client.mode}.
+ * Pool gauges are published as httpcomponents.httpclient.pool.* or reactor.netty.connection.provider.*,
+ * and newly opened connections are counted in gateway.server.connections.created, so reuse can be
+ * read against http.client.requests.
+ */
+@Component
+public class ServerTransportFactory implements DisposableBean {
+    private static final String POOL_NAME = "shareit-server";
+
+    private final String serverUrl;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final boolean passthrough;
+    private final ServerWireFormat wireFormat;
+    private final ServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient httpClient;
+    private final ClientHttpRequestFactory requestFactory;
+    private final ConnectionProvider connectionProvider;
+    private final ReactorClientHttpConnector connector;
+
+    public ServerTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                  ServerClientProperties properties,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  WebClient.Builder webClientBuilder,
+                                  MeterRegistry meterRegistry) {
+        this.serverUrl = serverUrl;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.passthrough = properties.isPassthrough();
+        this.wireFormat = new ServerWireFormat(properties.isSmile());
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Counter created = Counter.builder("gateway.server.connections.created")
+                .description("Connections opened to the ShareIt server")
+                .tag("client", properties.isReactive() ? "reactive" : "blocking")
+                .register(meterRegistry);
+        if (properties.isReactive()) {
+            this.httpClient = null;
+            this.requestFactory = null;
+            this.connectionProvider = ConnectionProvider.builder(POOL_NAME)
+                    .maxConnections(properties.getMaxConnections())
+                    .pendingAcquireTimeout(properties.getAcquireTimeout())
+                    .maxIdleTime(properties.getIdleTimeout())
+                    .evictInBackground(properties.getIdleTimeout())
+                    .metrics(true)
+                    .build();
+            this.connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout())
+                    .compress(properties.isCompression())
+                    .observe((connection, state) -> {
+                        if (state == ConnectionObserver.State.CONNECTED) {
+                            created.increment();
+                        }
+                    }));
+        } else {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                    RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                            .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                            .build(),
+                    (route, config) -> {
+                        created.increment();
+                        return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                    });
+            connectionManager.setMaxTotal(properties.getMaxConnections());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+            connectionManager.setValidateAfterInactivity(1000);
+            new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+            HttpClientBuilder httpClientBuilder = HttpClients.custom();
+            if (!properties.isCompression()) {
+                httpClientBuilder.disableContentCompression();
+            }
+            this.httpClient = httpClientBuilder
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                            .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                            .setConnectionRequestTimeout((int) properties.getAcquireTimeout().toMillis())
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+            this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            this.connectionProvider = null;
+            this.connector = null;
+        }
+    }
+
+    /**
+     * Every transport gets its own bulkhead and circuit breaker, named after the prefix without the slash.
+     */
+    public ServerTransport create(String prefix) {
+        return new GuardedTransport(createTransport(prefix), prefix.replace("/", ""), properties, meterRegistry);
+    }
+
+    private ServerTransport createTransport(String prefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + prefix);
+        if (connector != null) {
+            return new WebClientTransport(webClientBuilder.clone()
+                    .clientConnector(connector)
+                    .uriBuilderFactory(uriBuilderFactory)
+                    .build(), passthrough, wireFormat);
+        }
+        return new RestTemplateTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> requestFactory)
+                .build(), passthrough, wireFormat);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Encoding the server is asked to answer in. With smile the server sends Smile (binary JSON), and raw bodies
+ * are transcoded token by token back to JSON before they reach end users, without binding them to objects.
+ */
+public class ServerWireFormat {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final boolean smile;
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ServerWireFormat(boolean smile) {
+        this.smile = smile;
+    }
+
+    public List<MediaType> accept() {
+        return smile ? List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON) : List.of(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Returns the response with a JSON body if the server answered in Smile, otherwise the response itself.
+     * Plain-text error messages are sent as they are whatever the Accept header says, so only bodies
+     * starting with the Smile header are transcoded.
+     */
+    public ResponseEntity<byte[]> toJson(ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        MediaType contentType = response.getHeaders().getContentType();
+        if (!smile || body == null || contentType == null || !contentType.isCompatibleWith(APPLICATION_SMILE)
+                || !hasSmileHeader(body)) {
+            return response;
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream(body.length * 2);
+        try (JsonParser parser = smileFactory.createParser(body);
+             JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(json.toByteArray(), headers, response.getStatusCode());
+    }
+
+    private static boolean hasSmileHeader(byte[] body) {
+        if (body.length < SMILE_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < SMILE_HEADER.length; i++) {
+            if (body[i] != SMILE_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking transport: no request thread is held while the server works.
+ */
+public class WebClientTransport implements ServerTransport {
+    private final WebClient webClient;
+    private final boolean passthrough;
+    private final ServerWireFormat wireFormat;
+
+    public WebClientTransport(WebClient webClient, boolean passthrough, ServerWireFormat wireFormat) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(h -> {
+                    h.addAll(headers);
+                    h.setAccept(wireFormat.accept());
+                });
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> {
+            if (response.statusCode().isError()) {
+                return response.toEntity(byte[].class)
+                        .map(entity -> ResponseEntity.status(response.statusCode())
+                                .<Object>body(entity.hasBody() ? wireFormat.toJson(entity).getBody() : new byte[0]));
+            }
+            if (passthrough) {
+                return response.toEntity(byte[].class)
+                        .map(wireFormat::toJson)
+                        .map(BaseClient::preparePassthroughResponse);
+            }
+            return response.toEntity(Object.class)
+                    .map(BaseClient::prepareGatewayResponse);
+        });
+    }
+}
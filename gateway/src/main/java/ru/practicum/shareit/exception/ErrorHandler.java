@@ -12,4 +12,10 @@ public class ErrorHandler {
     public String handleIncorrectDataException(IncorrectDataException e) {
         return e.getMessage();
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public String handlePayloadTooLargeException(PayloadTooLargeException e) {
+        return e.getMessage();
+    }
 }
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -1,13 +1,13 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -17,33 +17,33 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/items"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransportFactory transportFactory, RequestCoalescer coalescer) {
+        super(transportFactory.create("/items"), coalescer);
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItems(Long userId, MediaType contentType, byte[] body) {
+        return postRaw("/bulk", userId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long itemId, Long userId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(Long itemId, Long userId) {
+        return getCoalesced("items.get", "/" + itemId, userId, null);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllByOwner(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAvailableByText(Long userId, String text, Long from, Long size) {
-        return get(
+    public Mono<ResponseEntity<Object>> getAvailableByText(Long userId, String text, Long from, Long size) {
+        return getCoalesced(
+                "items.search",
                 "/search?text={text}&from={from}&size={size}",
                 userId,
                 Map.of(
@@ -53,7 +53,7 @@ public class ItemClient extends BaseClient {
                 ));
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -3,6 +3,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,12 +16,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.bulk.BulkBodyReader;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -29,16 +35,28 @@ import javax.validation.constraints.PositiveOrZero;
 public class ItemController {
 
     private final ItemClient itemClient;
+    private final BulkBodyReader bodyReader;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestBody @Valid ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody @Valid ItemDto itemDto,
                                           @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Adding new Item. UserId = {}", userId);
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> addItems(@Positive @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                 @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false)
+                                                 Long contentLength,
+                                                 InputStream body) throws IOException {
+        byte[] bytes = bodyReader.read(body, contentLength);
+        log.info("Adding items in bulk, {} bytes of {}. UserId = {}", bytes.length, contentType, userId);
+        return itemClient.addItems(userId, contentType, bytes);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @Positive @PathVariable Long itemId,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestBody ItemDto itemDto) {
@@ -48,20 +66,20 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@Positive @PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> getItem(@Positive @PathVariable Long itemId,
                                           @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get item by id = {} and userId = {}", itemId, userId);
         return itemClient.getItem(itemId, userId);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getAllByOwnerId(@Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(@Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Getting items by ownerId = {}", userId);
         return itemClient.getAllByOwner(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchAvailableItemsByText(
+    public Mono<ResponseEntity<Object>> searchAvailableItemsByText(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(name = "text", defaultValue = "") String text,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Long from,
@@ -71,7 +89,7 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Positive @PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> addComment(@Positive @PathVariable Long itemId,
                                              @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestBody @Valid CommentDto commentDto) {
         log.info("Adding comment to item with id = {} and comment text: {}", itemId, commentDto.getText());
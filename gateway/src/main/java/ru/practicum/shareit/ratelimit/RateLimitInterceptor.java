@@ -0,0 +1,63 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passes every request through the {@link RateLimiter} of its controller and answers 429 with Retry-After
+ * when it is turned away.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String TOO_MANY_REQUESTS = "Too many requests, try again later";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!rateLimiter.isEnabled() || !(handler instanceof HandlerMethod)
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String controller = controllerName((HandlerMethod) handler);
+        String userId = request.getHeader("X-Sharer-User-Id");
+        String caller = userId != null ? userId : request.getRemoteAddr();
+
+        long wait = rateLimiter.tryAcquire(controller, caller);
+        if (wait == 0) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(wait));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(TOO_MANY_REQUESTS);
+        return false;
+    }
+
+    public static String retryAfterSeconds(long waitNanos) {
+        return String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+    }
+
+    private static String controllerName(HandlerMethod handler) {
+        String name = handler.getBeanType().getSimpleName();
+        if (name.endsWith("Controller")) {
+            name = name.substring(0, name.length() - "Controller".length());
+        }
+        return name.toLowerCase();
+    }
+}
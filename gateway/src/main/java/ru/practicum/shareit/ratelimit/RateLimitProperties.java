@@ -0,0 +1,50 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /**
+     * Shared by all callers and controllers.
+     */
+    private Limit global = new Limit(5000, 2000);
+    /**
+     * Per caller (X-Sharer-User-Id, or client address without it) for each controller.
+     */
+    private Limit user = new Limit(200, 100);
+    /**
+     * Per-caller limits overriding {@code user} for one controller, keyed by controller name
+     * without the Controller suffix in lower case: booking, item, user, request, batch.
+     */
+    private Map<String, Limit> controllers = new HashMap<>();
+    /**
+     * At most this many caller buckets are tracked; the least recently used ones are dropped beyond it.
+     */
+    private int maxTrackedCallers = 100_000;
+
+    public Limit userLimit(String controller) {
+        return controllers.getOrDefault(controller, user);
+    }
+
+    @Data
+    public static class Limit {
+        private long capacity;
+        private double perSecond;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, double perSecond) {
+            this.capacity = capacity;
+            this.perSecond = perSecond;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admits a call when both the caller's bucket for the controller and the global bucket have a token.
+ * Outcomes are counted in gateway.ratelimit.requests.
+ * <p>
+ * Caller buckets live in a Caffeine cache bounded by {@code max-tracked-callers}. A bucket expires once it has
+ * been idle long enough to refill, when a new one would be the same; only the size bound can drop a bucket
+ * still in use, which hands that caller a fresh burst.
+ */
+@Component
+public class RateLimiter {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> callers;
+    private final TokenBucket global;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.global = new TokenBucket(properties.getGlobal(), System.nanoTime());
+        // rejects a bad per-caller limit at startup rather than on its first request
+        new TokenBucket(properties.getUser(), 0);
+        properties.getControllers().values().forEach(limit -> new TokenBucket(limit, 0));
+        this.callers = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedCallers())
+                // evicts on the calling thread, so the callers gauge is never behind
+                .executor(Runnable::run)
+                .expireAfter(new Expiry<String, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+                        return bucket.refillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime,
+                                                  long currentDuration) {
+                        return bucket.refillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenBucket bucket, long currentTime,
+                                                long currentDuration) {
+                        return bucket.refillNanos();
+                    }
+                })
+                .build();
+        meterRegistry.gauge("gateway.ratelimit.callers", callers, Cache::estimatedSize);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Takes a token for one call of {@code caller} to {@code controller}, named as in
+     * {@link RateLimitProperties#getControllers()}.
+     *
+     * @return 0 if the call is admitted, otherwise nanoseconds until it may be retried
+     */
+    public long tryAcquire(String controller, String caller) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        TokenBucket callerBucket = callerBucket(controller, caller, now);
+        long wait = callerBucket.tryAcquire(now);
+        String result = "rejected_user";
+        if (wait == 0) {
+            wait = global.tryAcquire(now);
+            result = "admitted";
+            if (wait > 0) {
+                // the caller is not charged for a request the global limit turned away
+                callerBucket.refund();
+                result = "rejected_global";
+            }
+        }
+        counter(controller, result).increment();
+        return wait;
+    }
+
+    private TokenBucket callerBucket(String controller, String caller, long now) {
+        return callers.get(controller + ":" + caller, key -> new TokenBucket(properties.userLimit(controller), now));
+    }
+
+    private Counter counter(String controller, String result) {
+        return Counter.builder("gateway.ratelimit.requests")
+                .description("Requests by rate limiter decision")
+                .tag("controller", controller)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
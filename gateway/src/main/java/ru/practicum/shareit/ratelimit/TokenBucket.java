@@ -0,0 +1,55 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single "theoretical arrival time" (the GCRA form):
+ * the bucket is full when that time is not ahead of now, and every token moves it one refill interval forward.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    TokenBucket(RateLimitProperties.Limit limit, long now) {
+        if (!(limit.getPerSecond() > 0)) {
+            throw new IllegalArgumentException("Rate limit per-second must be positive: " + limit.getPerSecond());
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.getPerSecond()));
+        this.burstNanos = intervalNanos * Math.max(1, limit.getCapacity());
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one will be available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was not let through after all.
+     */
+    void refund() {
+        arrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Time an untouched bucket takes to refill from empty; once it has been idle that long it is full.
+     */
+    long refillNanos() {
+        return burstNanos;
+    }
+}
@@ -1,13 +1,12 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 import java.util.Map;
 
@@ -15,28 +14,23 @@ import java.util.Map;
 public class RequestClient extends BaseClient {
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/requests"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(ServerTransportFactory transportFactory, RequestCoalescer coalescer) {
+        super(transportFactory.create("/requests"), coalescer);
     }
 
-    public ResponseEntity<Object> addRequest(Long userId, RequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(Long userId, RequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getAllForUser(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllForUser(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, int from, int size) {
-        return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    public Mono<ResponseEntity<Object>> getAll(Long userId, int from, int size) {
+        return getCoalesced("requests.all", "/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getRequest(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -26,19 +27,19 @@ public class RequestController {
     private final RequestClient client;
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(
+    public Mono<ResponseEntity<Object>> addRequest(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Valid @RequestBody RequestDto requestDto) {
         return client.addRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForUser(@Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getAllForUser(@Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         return client.getAllForUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(
+    public Mono<ResponseEntity<Object>> getAll(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
             @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
@@ -46,7 +47,7 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Positive @PathVariable Long requestId) {
         return client.getRequest(userId, requestId);
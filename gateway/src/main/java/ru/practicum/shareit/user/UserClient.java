@@ -1,44 +1,43 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 @Service
 public class UserClient extends BaseClient {
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/users"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransportFactory transportFactory, RequestCoalescer coalescer) {
+        super(transportFactory.create("/users"), coalescer);
     }
 
-    public ResponseEntity<Object> add(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> add(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addAll(MediaType contentType, byte[] body) {
+        return postRaw("/bulk", null, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> update(UserDto userDto) {
         return patch("/" + userDto.getId(), userDto);
     }
 
-    public ResponseEntity<Object> getById(Long userId) {
+    public Mono<ResponseEntity<Object>> getById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public void delete(Long userId) {
-        delete("/" + userId);
+    public Mono<Void> delete(Long userId) {
+        return delete("/" + userId).then();
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,11 +12,16 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.bulk.BulkBodyReader;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/users")
@@ -23,15 +30,26 @@ import javax.validation.constraints.Positive;
 @Validated
 public class UserController {
     private final UserClient client;
+    private final BulkBodyReader bodyReader;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserDto userDto) {
         log.info("Adding new user with name {} and email {} .", userDto.getName(), userDto.getEmail());
         return client.add(userDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> addUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                 @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false)
+                                                 Long contentLength,
+                                                 InputStream body) throws IOException {
+        byte[] bytes = bodyReader.read(body, contentLength);
+        log.info("Adding users in bulk, {} bytes of {}", bytes.length, contentType);
+        return client.addAll(contentType, bytes);
+    }
+
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> editUser(
+    public Mono<ResponseEntity<Object>> editUser(
             @PathVariable Long userId,
             @RequestBody UserDto userDto) {
         log.info("Editing user with id = {}", userId);
@@ -40,20 +58,20 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@Positive @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@Positive @PathVariable Long userId) {
         log.info("Getting user by id = {}", userId);
         return client.getById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Getting all users");
         return client.getAll();
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@Positive @PathVariable Long userId) {
+    public Mono<Void> deleteUser(@Positive @PathVariable Long userId) {
         log.info("Deleting user with id = {}", userId);
-        client.delete(userId);
+        return client.delete(userId);
     }
 }
\ No newline at end of file
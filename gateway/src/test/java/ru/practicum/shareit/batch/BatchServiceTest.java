@@ -0,0 +1,65 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.request.RequestController;
+import ru.practicum.shareit.user.UserController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchServiceTest {
+    private final UserController userController = mock(UserController.class);
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final BatchService batchService = new BatchService(userController,
+            mock(ItemController.class), mock(BookingController.class), mock(RequestController.class),
+            new RateLimiter(properties, new SimpleMeterRegistry()), new ObjectMapper(), 20);
+
+    @Test
+    void nullRequestIsRejected() {
+        IncorrectDataException e = assertThrows(IncorrectDataException.class,
+                () -> batchService.execute(1L, Arrays.asList(request("/users"), null)));
+
+        assertEquals("Batch requests can't be null", e.getMessage());
+    }
+
+    @Test
+    void subRequestsSpendTheirControllersTokens() {
+        properties.getControllers().put("user", new RateLimitProperties.Limit(2, 0.001));
+        when(userController.getUserById(anyLong())).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        List<BatchResponseDto> responses = batchService.execute(1L,
+                List.of(request("/users/1"), request("/users/2"), request("/users/3"))).block();
+
+        assertEquals(List.of(200, 200, 429), responses.stream()
+                .map(BatchResponseDto::getStatus)
+                .sorted()
+                .collect(Collectors.toList()));
+        // another caller has a bucket of their own
+        assertEquals(200, batchService.execute(2L, List.of(request("/users/1"))).block().get(0).getStatus());
+    }
+
+    private static BatchRequestDto request(String path) {
+        BatchRequestDto request = new BatchRequestDto();
+        request.setId(path);
+        request.setPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.exception.PayloadTooLargeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkBodyReaderTest {
+    private final BulkBodyReader reader = new BulkBodyReader(DataSize.ofBytes(8));
+
+    @Test
+    void bodyUpToLimitIsRead() throws IOException {
+        byte[] body = "[{},{}]\n".getBytes();
+
+        assertArrayEquals(body, reader.read(new ByteArrayInputStream(body), (long) body.length));
+    }
+
+    @Test
+    void declaredLengthOverLimitIsRefusedUnread() {
+        InputStream body = new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                throw new AssertionError("body must not be read");
+            }
+        };
+
+        assertThrows(PayloadTooLargeException.class, () -> reader.read(body, 9L));
+    }
+
+    @Test
+    void chunkedBodyOverLimitIsRefused() {
+        PayloadTooLargeException e = assertThrows(PayloadTooLargeException.class,
+                () -> reader.read(new ByteArrayInputStream(new byte[9]), null));
+
+        assertEquals("Bulk body is larger than 8 bytes", e.getMessage());
+    }
+}
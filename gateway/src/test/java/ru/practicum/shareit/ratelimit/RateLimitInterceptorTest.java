@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void globalRejectionDoesNotSpendCallerToken() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGlobal(new RateLimitProperties.Limit(1, 0.001));
+        properties.setUser(new RateLimitProperties.Limit(1, 0.001));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter(properties, meterRegistry));
+        HandlerMethod handler = new HandlerMethod(new ItemController(), "handle");
+
+        assertTrue(interceptor.preHandle(request("1"), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("2"), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("2"), new MockHttpServletResponse(), handler));
+
+        assertEquals(2, count("rejected_global"));
+        assertEquals(0, count("rejected_user"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("gateway.ratelimit.requests", "controller", "item", "result", result).count();
+    }
+
+    private static MockHttpServletRequest request(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader("X-Sharer-User-Id", userId);
+        return request;
+    }
+
+    static class ItemController {
+        public void handle() {
+        }
+    }
+}
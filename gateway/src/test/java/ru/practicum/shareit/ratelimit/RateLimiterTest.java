@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void trackedCallersAreBounded() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxTrackedCallers(10);
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+
+        for (int caller = 0; caller < 1000; caller++) {
+            assertEquals(0, rateLimiter.tryAcquire("item", String.valueOf(caller)));
+        }
+
+        assertTrue(meterRegistry.get("gateway.ratelimit.callers").gauge().value() <= 10);
+    }
+
+    @Test
+    void nonPositiveRateIsRejected() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getControllers().put("item", new RateLimitProperties.Limit(10, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(properties, meterRegistry));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(new RateLimitProperties.Limit(10, -1), 0));
+    }
+}
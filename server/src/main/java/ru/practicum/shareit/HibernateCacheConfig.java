@@ -0,0 +1,61 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process Caffeine regions for the Hibernate second-level and query cache.
+ * Hit and miss statistics are published as hibernate.* metrics when hibernate.generate_statistics is on.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    private static final List<String> BOUNDED_REGIONS = List.of(
+            User.class.getName(),
+            Item.class.getName(),
+            ItemRequest.class.getName(),
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${shareit.jpa.cache.max-size:10000}") long maxSize,
+                                              @Value("${shareit.jpa.cache.ttl-seconds:600}") long ttlSeconds) {
+        // a manager of its own, the provider's default one is shared by every context in the JVM
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("shareit:hibernate:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+        bounded.setMaximumSize(OptionalLong.of(maxSize));
+        bounded.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        bounded.setStatisticsEnabled(true);
+        for (String region : BOUNDED_REGIONS) {
+            cacheManager.createCache(region, bounded);
+        }
+        // Timestamps must outlive every cached query result, so this region is never evicted.
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * With shareit.server.threads=virtual every request, controller to JDBC, runs on its own virtual thread
+ * instead of Tomcat's platform pool, so waiting on the database no longer ties up a pooled thread and the
+ * Hikari pool becomes the only concurrency limit. Needs a Java 21 runtime; on older ones the platform pool
+ * is kept. The project still compiles for Java 11, hence the reflective lookup.
+ * Monitors held while a virtual thread blocks pin its carrier; jdk.tracePinnedThreads prints the stack of
+ * every such case and is set from shareit.server.trace-pinned-threads unless given on the command line.
+ * The PostgreSQL driver must be 42.6.0 or later: older ones guard their socket I/O with monitors, so every
+ * JDBC call would pin and database concurrency would be capped at the number of carriers.
+ * This mode has not been load tested on Java 21 yet, see bench/README.md.
+ * The Hikari pool size and connection timeout from shareit.server.virtual.hikari.* are applied in this mode
+ * only, and only when virtual threads are actually available.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.server.threads", havingValue = "virtual")
+public class ServerThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(
+            @Value("${shareit.server.trace-pinned-threads:short}") String tracePinnedThreads) {
+        if (!tracePinnedThreads.isBlank() && System.getProperty("jdk.tracePinnedThreads") == null) {
+            System.setProperty("jdk.tracePinnedThreads", tracePinnedThreads);
+        }
+        ExecutorService executor = virtualThreadPerTaskExecutor();
+        if (executor == null) {
+            log.warn("Virtual threads need Java 21, running {} keeps Tomcat's platform thread pool",
+                    System.getProperty("java.version"));
+            return protocolHandler -> {
+            };
+        }
+        log.info("Requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadsHikariPostProcessor(
+            @Value("${shareit.server.virtual.hikari.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${shareit.server.virtual.hikari.connection-timeout-ms:5000}") long connectionTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && virtualThreadsSupported()) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMaximumPoolSize(maximumPoolSize);
+                    dataSource.setConnectionTimeout(connectionTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean virtualThreadsSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile (binary JSON) for callers that send Accept: application/x-jackson-smile, i.e. the gateway.
+ * The mapper comes from Boot's builder so it follows the same spring.jackson.* settings as JSON.
+ */
+@Configuration
+public class SmileConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build());
+    }
+}
@@ -50,8 +50,9 @@ public class BookingController {
                                                           @RequestParam(required = false, defaultValue = "0")
                                                           Integer from,
                                                           @RequestParam(required = false, defaultValue = "20")
-                                                          Integer size) {
-        return bookingService.getBookingCurrentUser(state, userId, from, size);
+                                                          Integer size,
+                                                          @RequestParam(required = false) Long after) {
+        return bookingService.getBookingCurrentUser(state, userId, from, size, after);
     }
 
     @GetMapping("/owner")
@@ -60,7 +61,8 @@ public class BookingController {
                                                    @RequestParam(required = false, defaultValue = "0")
                                                    Integer from,
                                                    @RequestParam(required = false, defaultValue = "20")
-                                                   Integer size) {
-        return bookingService.getBookingByOwner(state, userId, from, size);
+                                                   Integer size,
+                                                   @RequestParam(required = false) Long after) {
+        return bookingService.getBookingByOwner(state, userId, from, size, after);
     }
 }
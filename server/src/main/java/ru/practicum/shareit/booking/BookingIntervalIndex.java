@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
+
+/**
+ * Per-item interval trees of WAITING and APPROVED bookings, loaded from the database on first use.
+ * All changes for one item run under that item's lock, so overlap check and insert are atomic
+ * within this instance; bookings made through another instance are not seen until the tree is reloaded.
+ * The lock is held across the load and the insert, so it is a ReentrantLock rather than a monitor,
+ * which would pin the carrier thread of a virtual thread for the whole JDBC call.
+ * <p>
+ * A sweeper keeps the index bounded: bookings that have ended are dropped (new bookings can't start in the
+ * past, so they can't conflict), and items untouched for {@code shareit.booking.index.idle-timeout-ms}
+ * with no transaction in flight are evicted and reloaded on their next use.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final long idleTimeoutNanos;
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.index.idle-timeout-ms:600000}") long idleTimeoutMillis) {
+        this.bookingRepository = bookingRepository;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    /**
+     * Saves a booking for {@code [start, end)} if it overlaps no active booking of the item.
+     * The interval is dropped again if the surrounding transaction rolls back.
+     */
+    public Booking reserve(Long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> save) {
+        ItemIntervals intervals = lock(itemId);
+        try {
+            checkFree(intervals, start, end);
+            Booking booking = save.get();
+            intervals.tree.add(booking.getId(), start, end);
+            removeOnRollback(intervals, booking.getId(), start);
+            return booking;
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a booking that left the index (e.g. was rejected) back, if its time is still free.
+     */
+    public void restore(Booking booking) {
+        ItemIntervals intervals = lock(booking.getItem().getId());
+        try {
+            checkFree(intervals, booking.getStart(), booking.getEnd());
+            intervals.tree.add(booking.getId(), booking.getStart(), booking.getEnd());
+            removeOnRollback(intervals, booking.getId(), booking.getStart());
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the booking from the index once the transaction commits.
+     */
+    public void releaseAfterCommit(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(itemId, bookingId, start);
+                }
+            });
+        } else {
+            release(itemId, bookingId, start);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.index.sweep-delay-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long idleSince = System.nanoTime() - idleTimeoutNanos;
+        int pruned = 0;
+        int evicted = 0;
+        for (ItemIntervals intervals : items.values()) {
+            if (!intervals.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (intervals.pending == 0 && intervals.lastUsed - idleSince < 0) {
+                    intervals.retired = true;
+                    items.remove(intervals.itemId, intervals);
+                    evicted++;
+                } else if (intervals.tree != null) {
+                    pruned += intervals.tree.removeEndedBy(now);
+                }
+            } finally {
+                intervals.lock.unlock();
+            }
+        }
+        log.debug("Booking index swept: {} ended bookings pruned, {} idle items evicted, {} items left",
+                pruned, evicted, items.size());
+    }
+
+    private void release(Long itemId, Long bookingId, LocalDateTime start) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return;
+        }
+        intervals.lock.lock();
+        try {
+            if (intervals.tree != null) {
+                intervals.tree.remove(bookingId, start);
+            }
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    private void checkFree(ItemIntervals intervals, LocalDateTime start, LocalDateTime end) {
+        if (intervals.tree == null) {
+            IntervalTree tree = new IntervalTree();
+            List<BookingDtoForItem> bookings = bookingRepository.findByItemIdAndStatuses(intervals.itemId,
+                    List.of(WAITING, APPROVED));
+            for (BookingDtoForItem booking : bookings) {
+                tree.add(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+            intervals.tree = tree;
+        }
+        if (intervals.tree.findOverlap(start, end) != null) {
+            throw new ValidationException("Item already booked for this time!!!");
+        }
+    }
+
+    /**
+     * Locks the live entry of the item; an entry the sweeper evicted meanwhile is skipped for a fresh one.
+     */
+    private ItemIntervals lock(Long itemId) {
+        while (true) {
+            ItemIntervals intervals = items.computeIfAbsent(itemId, ItemIntervals::new);
+            intervals.lock.lock();
+            if (!intervals.retired) {
+                intervals.lastUsed = System.nanoTime();
+                return intervals;
+            }
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called under the item's lock. Until the transaction completes the item is not evicted,
+     * so the uncommitted interval stays visible to other writers.
+     */
+    private static void removeOnRollback(ItemIntervals intervals, Long bookingId, LocalDateTime start) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        intervals.pending++;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                intervals.lock.lock();
+                try {
+                    intervals.pending--;
+                    if (status != STATUS_COMMITTED) {
+                        intervals.tree.remove(bookingId, start);
+                    }
+                } finally {
+                    intervals.lock.unlock();
+                }
+            }
+        });
+    }
+
+    private static class ItemIntervals {
+        private final Long itemId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private IntervalTree tree;
+        // guarded by lock
+        private int pending;
+        private boolean retired;
+        private long lastUsed = System.nanoTime();
+
+        ItemIntervals(Long itemId) {
+            this.itemId = itemId;
+        }
+    }
+}
@@ -4,9 +4,13 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForCreated;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDtoForCreate;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
 
 import static ru.practicum.shareit.item.ItemMapper.mapToItemDtoForCreate;
 import static ru.practicum.shareit.user.UserMapper.mapToUserDto;
@@ -20,7 +24,8 @@ public class BookingMapper {
                 bookingDto.getEnd(),
                 item,
                 booker,
-                bookingDto.getStatus()
+                bookingDto.getStatus(),
+                null
         );
     }
 
@@ -31,6 +36,7 @@ public class BookingMapper {
                 bookingDto.getEnd(),
                 item,
                 booker,
+                null,
                 null
         );
     }
@@ -48,6 +54,19 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDtoResponse mapToBookingDtoResponse(BookingDtoForList booking) {
+        return new BookingDtoResponse(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                new UserDto(booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail()),
+                new ItemDtoForCreate(booking.getItemId(), booking.getItemName(), booking.getItemDescription(),
+                        booking.getItemAvailable(), booking.getItemRequestId()),
+                booking.getItemName()
+        );
+    }
+
     public static BookingDto mapToBookingDto(Booking booking) {
         return new BookingDto(
                 booking.getId(),
@@ -55,7 +74,31 @@ public class BookingMapper {
                 booking.getEnd(),
                 mapToUserDto(booking.getBooker()),
                 booking.getStatus(),
-                booking.getItem()
+                mapToItemDtoForCreate(booking.getItem())
+        );
+    }
+
+    public static BookingDtoForOwner mapToLastBooking(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingDtoForOwner(
+                summary.getLastBookingId(),
+                summary.getLastBookerId(),
+                summary.getLastStart(),
+                summary.getLastEnd()
+        );
+    }
+
+    public static BookingDtoForOwner mapToNextBooking(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingDtoForOwner(
+                summary.getNextBookingId(),
+                summary.getNextBookerId(),
+                summary.getNextStart(),
+                summary.getNextEnd()
         );
     }
 }
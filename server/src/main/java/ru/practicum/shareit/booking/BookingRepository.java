@@ -1,43 +1,53 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    Page<Booking> findBookingByBookerId(Long bookerId, Pageable pageable);
-
-    Page<Booking> findBookingByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findBookingByItem_OwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findBookingByItem_OwnerId(Long ownerId, Pageable pageable);
-
-    Page<Booking> findBookingByItem_OwnerIdAndStartIsAfter(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findBookingByItem_OwnerId(Long ownerId);
-
-    List<Booking> findBookingByItem_Id(Long itemId);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    /**
+     * A single booking is read as an entity, with its item and booker in the same select; lists go through
+     * {@link #findForList}.
+     */
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Rows needed for the last/next summary of every item from {@code itemIds} in one query:
+     * the last finished booking, the nearest upcoming one and the unfinished booking that ends first.
+     * Several rows per item are possible when bookings share the same start or end time.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.item.id, b.id, b.booker.id, b.start, b.end) "
+            + "from Booking b "
+            + "where b.item.id in ?1 "
+            + "and ((b.end < ?2 and b.end = (select max(l.end) from Booking l "
+            + "where l.item.id = b.item.id and l.end < ?2)) "
+            + "or (b.start > ?2 and b.start = (select min(n.start) from Booking n "
+            + "where n.item.id = b.item.id and n.start > ?2)) "
+            + "or (b.end >= ?2 and b.end = (select min(e.end) from Booking e "
+            + "where e.item.id = b.item.id and e.end >= ?2)))")
+    List<BookingDtoForItem> findSummaryRowsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * Runs in its own transaction so the connection is released before the caller waits for an item lock.
+     */
+    @Transactional(readOnly = true)
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Optional<Long> findItemIdById(Long bookingId);
 
     List<Booking> findBookingByBooker_IdAndItem_Id(Long bookerId, Long itemId);
 
-    Page<Booking> findBookingByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId,
-                                                                      LocalDateTime time1,
-                                                                      LocalDateTime time2,
-                                                                      Pageable pageable);
-
-    Page<Booking> findBookingByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(Long bookerId,
-                                                                         LocalDateTime time1,
-                                                                         LocalDateTime time2,
-                                                                         Pageable pageable);
-
-    Page<Booking> findByBookerIdAndEndIsBefore(Long userId, LocalDateTime time, Pageable pageable);
-
-    Page<Booking> findByItem_OwnerIdAndEndIsBefore(Long userId, LocalDateTime time, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.item.id, b.id, b.booker.id, b.start, b.end) "
+            + "from Booking b "
+            + "where b.item.id = ?1 and b.status in ?2")
+    List<BookingDtoForItem> findByItemIdAndStatuses(Long itemId, Collection<BookingStatus> statuses);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Read-only listing: selects only the columns of {@link BookingDtoForList}, newest first.
+     */
+    List<BookingDtoForList> findForList(Specification<Booking> specification, long offset, int limit);
+
+    /**
+     * Whether any booking matches, without loading it.
+     */
+    boolean exists(Specification<Booking> specification);
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoForList> findForList(Specification<Booking> specification, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoForList> query = cb.createQuery(BookingDtoForList.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<Object> booker = root.get("booker");
+        Path<Object> item = root.get("item");
+        query.select(cb.construct(BookingDtoForList.class,
+                        root.get("id"),
+                        root.get("start"),
+                        root.get("end"),
+                        root.get("status"),
+                        booker.get("id"),
+                        booker.get("name"),
+                        booker.get("email"),
+                        item.get("id"),
+                        item.get("name"),
+                        item.get("description"),
+                        item.get("available"),
+                        item.get("request").get("id")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("start")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public boolean exists(Specification<Booking> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> root = query.from(Booking.class);
+        query.select(root.get("id"))
+                .where(specification.toPredicate(root, query, cb));
+        return !entityManager.createQuery(query)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+}
@@ -1,9 +1,8 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForCreated;
@@ -13,18 +12,24 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.BookingMapper.mapToBooking;
 import static ru.practicum.shareit.booking.BookingMapper.mapToBookingDto;
 import static ru.practicum.shareit.booking.BookingMapper.mapToBookingDtoWithTime;
+import static ru.practicum.shareit.booking.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.BookingSpecifications.withId;
 import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.enums.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
@@ -34,21 +39,44 @@ import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
 public class BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingWriteGuard writeGuard;
+    private final ItemViewCache itemViewCache;
+    private final ItemBookingSummaryService summaryService;
 
     public BookingService(BookingRepository bookingRepository,
                           ItemRepository itemRepository,
-                          UserRepository userRepository) {
+                          UserCache userCache,
+                          BookingIntervalIndex intervalIndex,
+                          BookingWriteGuard writeGuard,
+                          ItemViewCache itemViewCache,
+                          ItemBookingSummaryService summaryService) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.intervalIndex = intervalIndex;
+        this.writeGuard = writeGuard;
+        this.itemViewCache = itemViewCache;
+        this.summaryService = summaryService;
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingDto createBooking(Long bookerId, BookingDtoForCreated bookingDto) {
+        return writeGuard.execute(bookingDto.getItemId(), () -> doCreateBooking(bookerId, bookingDto));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookingDtoResponse approved(Long ownerId, Long bookingId, boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found!!!"));
+        return writeGuard.execute(itemId, () -> doApproved(ownerId, bookingId, approved));
+    }
+
+    private BookingDto doCreateBooking(Long bookerId, BookingDtoForCreated bookingDto) {
         Item itemBooking = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found!!!"));
-        User booker = userRepository.findById(bookerId)
+        User booker = userCache.findById(bookerId)
                 .orElseThrow(() -> new NotFoundException("User not found!!!"));
         if (bookerId.equals(itemBooking.getOwner().getId())) {
             throw new NotFoundException("Owner can't booking his item!!!");
@@ -59,17 +87,20 @@ public class BookingService {
             }
             Booking booking = mapToBooking(bookingDto, itemBooking, booker);
             booking.setStatus(WAITING);
-            return mapToBookingDto(bookingRepository.save(booking));
+            itemViewCache.invalidate(itemBooking.getId());
+            Booking saved = intervalIndex.reserve(itemBooking.getId(), booking.getStart(), booking.getEnd(),
+                    () -> bookingRepository.save(booking));
+            summaryService.refresh(itemBooking.getId());
+            return mapToBookingDto(saved);
         } else {
             throw new ValidationException("Item unavailable!!!");
         }
     }
 
-    @Transactional
-    public BookingDtoResponse approved(Long ownerId, Long bookingId, boolean approved) {
+    private BookingDtoResponse doApproved(Long ownerId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found!!!"));
-        User owner = userRepository.findById(ownerId)
+        User owner = userCache.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("User not found!!!"));
         Item item = booking.getItem();
 
@@ -77,11 +108,20 @@ public class BookingService {
             throw new ValidationException("Can't change status!");
         }
         if (item.getOwner().getId().equals(owner.getId())) {
+            boolean active = booking.getStatus() == WAITING || booking.getStatus() == APPROVED;
             if (approved) {
+                if (!active) {
+                    intervalIndex.restore(booking);
+                }
                 booking.setStatus(APPROVED);
             } else {
+                if (active) {
+                    intervalIndex.releaseAfterCommit(booking);
+                }
                 booking.setStatus(REJECTED);
             }
+            summaryService.refresh(item.getId());
+            itemViewCache.invalidate(item.getId());
             return mapToBookingDtoWithTime(booking);
         } else {
             throw new NotFoundException("Not owner can't be updating booking!");
@@ -100,143 +140,42 @@ public class BookingService {
         }
     }
 
-    public List<BookingDtoResponse> getAllForUser(Long userId, Integer from, Integer size) {
-        int page = from < size ? 0 : from / size;
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start")
-                .descending());
-        if (userRepository.existsById(userId)) {
-            return extractedFromListBookingsAndMapToListBookingDto(bookingRepository.findBookingByBookerId(
-                    userId,
-                    pageable).toList());
-        } else {
-            throw new NotFoundException("User not found");
-        }
-    }
-
-    public List<BookingDtoResponse> getAllForOwner(Long ownerId, Integer from, Integer size) {
-        int page = from < size ? 0 : from / size;
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start")
-                .descending());
-        if (!userRepository.existsById(ownerId)) {
-            throw new NotFoundException("User not found");
-        }
-        return extractedFromListBookingsAndMapToListBookingDto(bookingRepository.findBookingByItem_OwnerId(
-                ownerId,
-                pageable).toList());
-
-    }
-
-    public List<BookingDtoResponse> getBookingCurrentUser(State state, Long userId, Integer from, Integer size) {
-        List<BookingDtoResponse> result = new ArrayList<>();
-
-        int page = from < size ? 0 : from / size;
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start")
-                .descending());
-
-        switch (state) {
-            case ALL:
-                result = getAllForUser(userId, from, size);
-                break;
-            case PAST:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findByBookerIdAndEndIsBefore(
-                                userId,
-                                LocalDateTime.now(),
-                                pageable).toList());
-                break;
-            case WAITING:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByBookerIdAndStatus(
-                                userId,
-                                WAITING,
-                                pageable).toList());
-                break;
-            case REJECTED:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByBookerIdAndStatus(
-                                userId,
-                                REJECTED,
-                                pageable).toList());
-                break;
-            case FUTURE:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findByBookerIdAndStartIsAfter(
-                                userId,
-                                LocalDateTime.now(),
-                                pageable).toList());
-                break;
-            case CURRENT:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByBooker_IdAndStartIsBeforeAndEndIsAfter(
-                                userId,
-                                LocalDateTime.now(),
-                                LocalDateTime.now(),
-                                pageable).toList());
-                break;
-        }
-        return result;
+    public List<BookingDtoResponse> getBookingCurrentUser(State state, Long userId, Integer from, Integer size,
+                                                          Long after) {
+        return getBookings(byBooker(userId), state, userId, from, size, after);
     }
 
     public List<BookingDtoResponse> getBookingByOwner(State state,
                                                       Long ownerId,
                                                       @PositiveOrZero Integer from,
-                                                      @Positive Integer size) {
-        List<BookingDtoResponse> result = new ArrayList<>();
-
-        int page = from < size ? 0 : from / size;
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start")
-                .descending());
-
-        switch (state) {
-            case ALL:
-                result = getAllForOwner(ownerId, from, size);
-                break;
-            case PAST:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findByItem_OwnerIdAndEndIsBefore(
-                                ownerId,
-                                LocalDateTime.now(),
-                                pageable).toList());
-                break;
-            case WAITING:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByItem_OwnerIdAndStatus(
-                                ownerId,
-                                WAITING,
-                                pageable).toList());
-                break;
-            case REJECTED:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByItem_OwnerIdAndStatus(
-                                ownerId,
-                                REJECTED,
-                                pageable).toList());
-                break;
-            case FUTURE:
-                LocalDateTime time = LocalDateTime.now();
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByItem_OwnerIdAndStartIsAfter(
-                                ownerId,
-                                time,
-                                pageable).toList());
-                break;
-            case CURRENT:
-                result = extractedFromListBookingsAndMapToListBookingDto(
-                        bookingRepository.findBookingByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(
-                                ownerId,
-                                LocalDateTime.now(),
-                                LocalDateTime.now(),
-                                pageable).toList());
-                break;
-        }
-        return result;
+                                                      @Positive Integer size,
+                                                      Long after) {
+        return getBookings(byItemOwner(ownerId), state, ownerId, from, size, after);
     }
 
-    private List<BookingDtoResponse> extractedFromListBookingsAndMapToListBookingDto(List<Booking> bookings) {
-        List<BookingDtoResponse> result = new ArrayList<>();
-        for (Booking booking : bookings) {
-            result.add(mapToBookingDtoWithTime(booking));
+    private List<BookingDtoResponse> getBookings(Specification<Booking> byUser,
+                                                 State state,
+                                                 Long userId,
+                                                 Integer from,
+                                                 Integer size,
+                                                 Long after) {
+        if ((state == State.ALL || after != null) && !userCache.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        Specification<Booking> specification = byUser.and(inState(state, LocalDateTime.now()));
+        long offset = 0;
+        if (after != null) {
+            // a cursor outside the caller's own list is rejected just like a missing one
+            if (!bookingRepository.exists(byUser.and(withId(after)))) {
+                throw new ValidationException("Unknown booking cursor " + after + "!!!");
+            }
+            specification = specification.and(after(after));
+        } else {
+            int page = from < size ? 0 : from / size;
+            offset = (long) page * size;
         }
-        return result;
+        return bookingRepository.findForList(specification, offset, size).stream()
+                .map(BookingMapper::mapToBookingDtoResponse)
+                .collect(Collectors.toList());
     }
 }
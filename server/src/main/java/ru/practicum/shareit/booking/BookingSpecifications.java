@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.enums.State;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.booking.enums.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingSpecifications {
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> withId(Long bookingId) {
+        return (root, query, cb) -> cb.equal(root.get("id"), bookingId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.get("start"), now),
+                        cb.greaterThan(root.get("end"), now));
+            case WAITING:
+                return (root, query, cb) -> cb.equal(root.get("status"), WAITING);
+            case REJECTED:
+                return (root, query, cb) -> cb.equal(root.get("status"), REJECTED);
+            default:
+                return (root, query, cb) -> cb.conjunction();
+        }
+    }
+
+    /**
+     * Bookings placed after {@code bookingId} in {@code (start, id)} descending order, i.e. a keyset cursor.
+     * Matches nothing if the booking doesn't exist, so callers check first that the cursor is in the same list.
+     */
+    public static Specification<Booking> after(Long bookingId) {
+        return (root, query, cb) -> {
+            Subquery<LocalDateTime> start = query.subquery(LocalDateTime.class);
+            Root<Booking> cursor = start.from(Booking.class);
+            start.select(cursor.get("start"))
+                    .where(cb.equal(cursor.get("id"), bookingId));
+            return cb.or(
+                    cb.lessThan(root.get("start"), start),
+                    cb.and(cb.equal(root.get("start"), start), cb.lessThan(root.get("id"), bookingId)));
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs booking writes of one item in their own transaction.
+ * In {@code striped} mode writes to the same item are serialized by one of a fixed set of locks picked by item id,
+ * so distinct items rarely contend; in {@code optimistic} mode only the {@code @Version} check on
+ * {@link Booking} guards them. In both modes a version conflict, or a duplicate {@link ItemBookingSummary} row
+ * inserted concurrently for an item booked for the first time, is retried a bounded number of times.
+ * Other constraint violations are not retried.
+ * <p>
+ * Neither mode is safe across several server instances. The stripe locks live in one JVM, and {@code @Version}
+ * only catches two writes to the same booking row, such as concurrent approvals; it can't stop two inserts of
+ * overlapping new bookings. Overlaps are caught only by {@link BookingIntervalIndex}, which is in memory and per
+ * instance too, so two instances can each accept one of two overlapping bookings. Running more than one instance
+ * needs a database guard such as an exclusion constraint on the booking period.
+ */
+@Slf4j
+@Component
+public class BookingWriteGuard {
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String SUMMARY_PRIMARY_KEY = "pk_item_booking_summary";
+    private static final String SUMMARY_TABLE = "item_booking_summaries";
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean striped;
+    private final Lock[] locks;
+    private final long lockTimeoutMillis;
+    private final int maxAttempts;
+
+    public BookingWriteGuard(PlatformTransactionManager transactionManager,
+                             @Value("${shareit.booking.locking.mode:striped}") String mode,
+                             @Value("${shareit.booking.locking.stripes:64}") int stripes,
+                             @Value("${shareit.booking.locking.timeout-ms:5000}") long lockTimeoutMillis,
+                             @Value("${shareit.booking.locking.max-attempts:3}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.striped = "striped".equalsIgnoreCase(mode);
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public <T> T execute(Long itemId, Supplier<T> action) {
+        if (!striped) {
+            return executeWithRetry(action);
+        }
+        Lock lock = locks[stripe(itemId)];
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Item is busy, try again later!!!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Item is busy, try again later!!!");
+        }
+        try {
+            return executeWithRetry(action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConflictException("Booking was changed concurrently, try again later!!!");
+                }
+                log.debug("Booking version conflict, attempt {} of {}", attempt, maxAttempts);
+            } catch (DataIntegrityViolationException e) {
+                // two first bookings of an item both insert its summary row, the retry finds the row and updates it
+                if (attempt >= maxAttempts || !isDuplicateSummary(e)) {
+                    throw e;
+                }
+                log.debug("Booking summary inserted concurrently, attempt {} of {}", attempt, maxAttempts);
+            }
+        }
+    }
+
+    /**
+     * The database names the constraint in the message: the primary key on Postgres, the table on H2.
+     */
+    private static boolean isDuplicateSummary(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                String message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+                return message.contains(SUMMARY_PRIMARY_KEY) || message.contains(SUMMARY_TABLE);
+            }
+        }
+        return false;
+    }
+
+    private int stripe(Long itemId) {
+        int hash = itemId.hashCode();
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+}
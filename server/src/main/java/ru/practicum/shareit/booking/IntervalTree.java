@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Half-open {@code [start, end)} intervals keyed by booking id: a treap ordered by {@code (start, id)}
+ * where every node also keeps the latest end of its subtree, so an overlap lookup descends a single path.
+ * Not thread-safe, callers guard it.
+ */
+class IntervalTree {
+    private Node root;
+
+    void add(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end));
+    }
+
+    void remove(long id, LocalDateTime start) {
+        root = delete(root, id, start);
+    }
+
+    /**
+     * Drops the intervals that ended by {@code time}, returns how many there were.
+     */
+    int removeEndedBy(LocalDateTime time) {
+        List<Node> ended = new ArrayList<>();
+        collectEndedBy(root, time, ended);
+        for (Node node : ended) {
+            root = delete(root, node.id, node.start);
+        }
+        return ended.size();
+    }
+
+    /**
+     * Id of any interval overlapping {@code [start, end)}, or {@code null}.
+     */
+    Long findOverlap(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return node.id;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private static void collectEndedBy(Node node, LocalDateTime time, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+        collectEndedBy(node.left, time, ended);
+        if (!node.end.isAfter(time)) {
+            ended.add(node);
+        }
+        collectEndedBy(node.right, time, ended);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, id, start);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = update(node);
+        return update(left);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = update(node);
+        return update(right);
+    }
+
+    private static Node update(Node node) {
+        if (node == null) {
+            return null;
+        }
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+        return node;
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
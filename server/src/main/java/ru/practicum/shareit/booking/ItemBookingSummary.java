@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Last finished and nearest upcoming booking of an item, valid until {@code validUntil}
+ * (null when nothing is going to change). Items that were never booked have no row.
+ */
+@Entity
+@Table(name = "item_booking_summaries")
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    @Version
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isValidAt(LocalDateTime now) {
+        return validUntil == null || now.isBefore(validUntil);
+    }
+
+    void copyWindow(ItemBookingSummary other) {
+        lastBookingId = other.lastBookingId;
+        lastBookerId = other.lastBookerId;
+        lastStart = other.lastStart;
+        lastEnd = other.lastEnd;
+        nextBookingId = other.nextBookingId;
+        nextBookerId = other.nextBookerId;
+        nextStart = other.nextStart;
+        nextEnd = other.nextEnd;
+        validUntil = other.validUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ItemBookingSummary summary = (ItemBookingSummary) o;
+        return itemId != null && Objects.equals(itemId, summary.itemId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
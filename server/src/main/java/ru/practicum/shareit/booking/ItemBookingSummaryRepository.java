@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select s.itemId from ItemBookingSummary s where s.validUntil <= ?1 order by s.validUntil")
+    List<Long> findExpiredItemIds(LocalDateTime now, Pageable pageable);
+}
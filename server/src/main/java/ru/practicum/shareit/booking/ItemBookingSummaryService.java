@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@link ItemBookingSummary} rows in step with bookings: booking writes refresh the row of their item
+ * in the same transaction and a sweeper rolls forward rows whose window has passed.
+ * Reads never return an expired row, they recompute it instead.
+ */
+@Slf4j
+@Transactional(readOnly = true)
+@Service
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingWriteGuard writeGuard;
+    private final int sweepBatchSize;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     BookingWriteGuard writeGuard,
+                                     @Value("${shareit.booking.summary.sweep-batch-size:500}") int sweepBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.writeGuard = writeGuard;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Current summaries of the items; items that were never booked are absent.
+     */
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expired = new ArrayList<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.isValidAt(now)) {
+                result.put(summary.getItemId(), summary);
+            } else {
+                expired.add(summary.getItemId());
+            }
+        }
+        result.putAll(compute(expired, now));
+        return result;
+    }
+
+    /**
+     * Recomputes the summary of the item, must run inside the transaction that changed its bookings.
+     */
+    @Transactional
+    public void refresh(Long itemId) {
+        ItemBookingSummary computed = compute(List.of(itemId), LocalDateTime.now()).get(itemId);
+        if (computed == null) {
+            return;
+        }
+        ItemBookingSummary summary = summaryRepository.findById(itemId)
+                .orElseGet(() -> new ItemBookingSummary(itemId));
+        summary.copyWindow(computed);
+        summaryRepository.save(summary);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.sweep-delay-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweep() {
+        Set<Long> busy = new HashSet<>();
+        List<Long> expired;
+        boolean progress;
+        do {
+            expired = summaryRepository.findExpiredItemIds(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+            progress = false;
+            for (Long itemId : expired) {
+                if (busy.contains(itemId)) {
+                    continue;
+                }
+                try {
+                    writeGuard.execute(itemId, () -> {
+                        refresh(itemId);
+                        return null;
+                    });
+                    progress = true;
+                } catch (ConflictException e) {
+                    // busy items stay expired and come back in the next batches, where they are skipped
+                    log.debug("Summary of item {} is busy, left for the next sweep", itemId);
+                    busy.add(itemId);
+                }
+            }
+        } while (expired.size() == sweepBatchSize && progress);
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+        for (BookingDtoForItem booking : bookingRepository.findSummaryRowsByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = result.computeIfAbsent(booking.getItemId(), ItemBookingSummary::new);
+            if (booking.getEnd().isBefore(now)) {
+                if (summary.getLastBookingId() == null || booking.getId() > summary.getLastBookingId()) {
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastBookerId(booking.getBookerId());
+                    summary.setLastStart(booking.getStart());
+                    summary.setLastEnd(booking.getEnd());
+                }
+                continue;
+            }
+            if (summary.getValidUntil() == null || booking.getEnd().isBefore(summary.getValidUntil())) {
+                summary.setValidUntil(booking.getEnd());
+            }
+            if (booking.getStart().isAfter(now) && (summary.getNextBookingId() == null
+                    || booking.getStart().isBefore(summary.getNextStart())
+                    || booking.getStart().isEqual(summary.getNextStart()) && booking.getId() < summary.getNextBookingId())) {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBookerId());
+                summary.setNextStart(booking.getStart());
+                summary.setNextEnd(booking.getEnd());
+            }
+        }
+        for (ItemBookingSummary summary : result.values()) {
+            if (summary.getNextStart() != null && summary.getNextStart().isBefore(summary.getValidUntil())) {
+                summary.setValidUntil(summary.getNextStart());
+            }
+        }
+        return result;
+    }
+}
@@ -3,7 +3,7 @@ package ru.practicum.shareit.booking.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.enums.BookingStatus;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDtoForCreate;
 import ru.practicum.shareit.user.UserDto;
 
 import java.time.LocalDateTime;
@@ -16,5 +16,5 @@ public class BookingDto {
     private final LocalDateTime end;
     private final UserDto booker;
     private final BookingStatus status;
-    private final Item item;
+    private final ItemDtoForCreate item;
 }
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of a bulk request, a JSON array or NDJSON (one object per line), to a consumer in chunks
+ * of {@code shareit.bulk.chunk-size}, so the whole body is never held in memory. A row that can't be read
+ * as {@code type}, a JSON null included, is passed on with its error; NDJSON carries on with the next line,
+ * while a malformed JSON array can't be read past the broken row.
+ */
+@Component
+public class BulkReader {
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BulkReader(ObjectMapper objectMapper, @Value("${shareit.bulk.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> void read(InputStream body, MediaType contentType, Class<T> type, Consumer<List<BulkRow<T>>> consumer)
+            throws IOException {
+        Chunks<T> chunks = new Chunks<>(consumer);
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            readLines(body, type, chunks);
+        } else {
+            readArray(body, type, chunks);
+        }
+        chunks.flush();
+    }
+
+    private <T> void readLines(InputStream body, Class<T> type, Chunks<T> chunks) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunks.add(objectMapper.readValue(line, type), null);
+            } catch (JsonProcessingException e) {
+                chunks.add(null, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private <T> void readArray(InputStream body, Class<T> type, Chunks<T> chunks) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Bulk body must be a JSON array or NDJSON!!!");
+            }
+            while (true) {
+                JsonNode node;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        return;
+                    }
+                    node = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    chunks.add(null, "Malformed JSON, the rest of the body was not read: " + e.getOriginalMessage());
+                    return;
+                }
+                try {
+                    chunks.add(objectMapper.treeToValue(node, type), null);
+                } catch (JsonProcessingException e) {
+                    chunks.add(null, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private class Chunks<T> {
+        private final Consumer<List<BulkRow<T>>> consumer;
+        private List<BulkRow<T>> chunk = new ArrayList<>();
+        private int row;
+
+        Chunks(Consumer<List<BulkRow<T>>> consumer) {
+            this.consumer = consumer;
+        }
+
+        void add(T value, String error) {
+            if (value == null && error == null) {
+                error = "Row must be an object";
+            }
+            chunk.add(new BulkRow<>(++row, value, error));
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One row of a bulk request, either read into {@code value} or failed with {@code error}.
+ */
+@Getter
+@Setter
+public class BulkRow<T> {
+    private final int row;
+    private final T value;
+    private String error;
+    private Long id;
+
+    BulkRow(int row, T value, String error) {
+        this.row = row;
+        this.value = value;
+        this.error = error;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a chunk of valid rows in one transaction. If the database rejects the chunk (a unique email taken
+ * or an owner deleted in the meantime), the chunk is retried row by row, so only the offending rows fail.
+ */
+@Slf4j
+@Component
+public class BulkWriter {
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkWriter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param insert inserts the rows and sets their ids
+     */
+    public <T> void write(List<BulkRow<T>> rows, Consumer<List<BulkRow<T>>> insert) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert.accept(rows));
+        } catch (DataAccessException e) {
+            rows.forEach(row -> row.setId(null));
+            if (rows.size() == 1) {
+                log.debug("Bulk row {} rejected", rows.get(0).getRow(), e);
+                rows.get(0).setError("Rejected by the database: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            for (BulkRow<T> row : rows) {
+                write(List.of(row), insert);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.bulk;
+
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row inserts in a single JDBC batch, bypassing Hibernate, which can't batch IDENTITY inserts.
+ * Hibernate doesn't see these writes, so cached query results are dropped once the transaction commits.
+ */
+@Component
+public class JdbcBatchInserter {
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactory sessionFactory;
+
+    public JdbcBatchInserter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Runs {@code sql} once per row in the current transaction.
+     *
+     * @param types SQL type of every parameter, see {@link java.sql.Types}
+     * @return generated ids in the order of the rows
+     */
+    public List<Long> insert(String sql, int[] types, List<Object[]> rows) {
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < types.length; i++) {
+                        statement.setObject(i + 1, row[i], types[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> generated = new ArrayList<>(rows.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                if (generated.size() != rows.size()) {
+                    throw new IllegalStateException("Expected " + rows.size() + " generated ids, got " + generated.size());
+                }
+                return generated;
+            }
+        });
+        evictQueryCacheAfterCommit();
+        return ids;
+    }
+
+    private void evictQueryCacheAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionFactory.getCache().evictQueryRegions();
+                }
+            });
+        } else {
+            sessionFactory.getCache().evictQueryRegions();
+        }
+    }
+}
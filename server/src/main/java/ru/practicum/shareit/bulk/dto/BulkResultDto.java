@@ -0,0 +1,26 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows are numbered from 1 in the order they were sent.
+ */
+@Data
+public class BulkResultDto {
+    private int created;
+    private int failed;
+    private List<BulkRowDto> rows = new ArrayList<>();
+
+    public void created(int row, long id) {
+        created++;
+        rows.add(new BulkRowDto(row, id, null));
+    }
+
+    public void failed(int row, String error) {
+        failed++;
+        rows.add(new BulkRowDto(row, null, error));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row: the id it was created with, or why it was not.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRowDto {
+    private int row;
+    private Long id;
+    private String error;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -40,6 +41,18 @@ public class ErrorHandler {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<String> exc(final ConflictException e) {
+        log.debug(e.getMessage());
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<String> exc(final ObjectOptimisticLockingFailureException e) {
+        log.debug(e.getMessage());
+        return new ResponseEntity<>("Changed concurrently, try again!!!", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Map<String, String>> exc(MethodArgumentTypeMismatchException ex) {
         Map<String, String> resp = new HashMap<>();
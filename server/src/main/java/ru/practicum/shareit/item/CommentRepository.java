@@ -1,9 +1,39 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findCommentByItem_Id(long itemId);
+
+    @Query("select c from Comment c join fetch c.author "
+            + "where c.item.id in ?1 "
+            + "order by c.id")
+    List<Comment> findCommentsByItemIds(Collection<Long> itemIds);
+
+    /**
+     * The {@code limitPerItem} newest comments of every item, oldest first: ids are ranked per item in one pass
+     * over ix_comments_item, then fetched with their authors.
+     */
+    default List<Comment> findLatestCommentsByItemIds(Collection<Long> itemIds, long limitPerItem) {
+        List<Long> ids = findLatestCommentIdsByItemIds(itemIds, limitPerItem).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        return ids.isEmpty() ? List.of() : findCommentsByIds(ids);
+    }
+
+    @Query(value = "select ranked.id from (select c.id, "
+            + "row_number() over (partition by c.item_id order by c.id desc) as rn "
+            + "from comments c where c.item_id in ?1) ranked "
+            + "where ranked.rn <= ?2", nativeQuery = true)
+    List<Number> findLatestCommentIdsByItemIds(Collection<Long> itemIds, long limitPerItem);
+
+    @Query("select c from Comment c join fetch c.author "
+            + "where c.id in ?1 "
+            + "order by c.id")
+    List<Comment> findCommentsByIds(Collection<Long> ids);
 }
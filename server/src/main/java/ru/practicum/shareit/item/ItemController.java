@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,10 +14,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForCreate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -24,10 +29,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private ItemService itemService;
+    private ItemImportService itemImportService;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemImportService itemImportService) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
     }
 
     @PostMapping
@@ -36,6 +43,17 @@ public class ItemController {
         return itemService.addNewItem(userId, itemDtoForCreate);
     }
 
+    /**
+     * Creates items from a JSON array or NDJSON body, reporting the outcome of every row.
+     * Rows without ownerId belong to the caller; rows naming another owner are rejected.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkResultDto addItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                  InputStream body) throws IOException {
+        return itemImportService.addNewItems(userId, body, contentType);
+    }
+
     @PatchMapping("{itemId}")
     public ItemDtoForCreate patch(@PathVariable long itemId,
                                   @RequestHeader("X-Sharer-User-Id") Long userId,
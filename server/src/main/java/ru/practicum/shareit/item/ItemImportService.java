@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.bulk.BulkReader;
+import ru.practicum.shareit.bulk.BulkRow;
+import ru.practicum.shareit.bulk.BulkWriter;
+import ru.practicum.shareit.bulk.JdbcBatchInserter;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.item.dto.ItemDtoForIndex;
+import ru.practicum.shareit.item.dto.ItemImportDto;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of items: every chunk is validated, its owners and requests are resolved with one query each
+ * and the items are inserted in one JDBC batch, then added to the search index. Each chunk commits on its own
+ * and a bad row fails alone. As with single creation, the caller owns every imported item.
+ */
+@Transactional(readOnly = true)
+@Service
+public class ItemImportService {
+    private static final String INSERT = "INSERT INTO items (name, description, is_available, owner_id, request_id) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final int[] TYPES = {Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN, Types.BIGINT, Types.BIGINT};
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final BulkReader reader;
+    private final BulkWriter writer;
+    private final JdbcBatchInserter inserter;
+
+    public ItemImportService(UserRepository userRepository,
+                             ItemRequestRepository requestRepository,
+                             ItemSearchIndex searchIndex,
+                             BulkReader reader,
+                             BulkWriter writer,
+                             JdbcBatchInserter inserter) {
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.searchIndex = searchIndex;
+        this.reader = reader;
+        this.writer = writer;
+        this.inserter = inserter;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResultDto addNewItems(Long userId, InputStream body, MediaType contentType) throws IOException {
+        BulkResultDto result = new BulkResultDto();
+        reader.read(body, contentType, ItemImportDto.class, chunk -> addChunk(userId, chunk, result));
+        return result;
+    }
+
+    private void addChunk(Long userId, List<BulkRow<ItemImportDto>> chunk, BulkResultDto result) {
+        for (BulkRow<ItemImportDto> row : chunk) {
+            if (row.isValid()) {
+                if (row.getValue().getOwnerId() == null) {
+                    row.getValue().setOwnerId(userId);
+                }
+                if (!userId.equals(row.getValue().getOwnerId())) {
+                    row.setError("Items can only be imported for the calling user");
+                } else {
+                    validate(row);
+                }
+            }
+        }
+        Set<Long> owners = existing(chunk, ItemImportDto::getOwnerId, userRepository::findExistingIds);
+        Set<Long> requests = existing(chunk, ItemImportDto::getRequestId, requestRepository::findExistingIds);
+        List<BulkRow<ItemImportDto>> rows = new ArrayList<>();
+        for (BulkRow<ItemImportDto> row : chunk) {
+            if (!row.isValid()) {
+                continue;
+            }
+            ItemImportDto item = row.getValue();
+            if (!owners.contains(item.getOwnerId())) {
+                row.setError("User with id " + item.getOwnerId() + " not found!");
+            } else if (item.getRequestId() != null && !requests.contains(item.getRequestId())) {
+                row.setError("Request not found!!!");
+            } else {
+                rows.add(row);
+            }
+        }
+        writer.write(rows, this::insert);
+        for (BulkRow<ItemImportDto> row : chunk) {
+            if (row.isValid()) {
+                result.created(row.getRow(), row.getId());
+            } else {
+                result.failed(row.getRow(), row.getError());
+            }
+        }
+    }
+
+    private void insert(List<BulkRow<ItemImportDto>> rows) {
+        List<Long> ids = inserter.insert(INSERT, TYPES, rows.stream()
+                .map(BulkRow::getValue)
+                .map(item -> new Object[]{item.getName(), item.getDescription(), item.getAvailable(),
+                        item.getOwnerId(), item.getRequestId()})
+                .collect(Collectors.toList()));
+        List<ItemDtoForIndex> indexed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BulkRow<ItemImportDto> row = rows.get(i);
+            row.setId(ids.get(i));
+            ItemImportDto item = row.getValue();
+            indexed.add(new ItemDtoForIndex(row.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getRequestId(), 0));
+        }
+        searchIndex.index(indexed);
+    }
+
+    private static Set<Long> existing(List<BulkRow<ItemImportDto>> chunk, Function<ItemImportDto, Long> id,
+                                      Function<Set<Long>, List<Long>> query) {
+        Set<Long> ids = chunk.stream()
+                .filter(BulkRow::isValid)
+                .map(row -> id.apply(row.getValue()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return ids.isEmpty() ? Set.of() : new HashSet<>(query.apply(ids));
+    }
+
+    private static void validate(BulkRow<ItemImportDto> row) {
+        ItemImportDto item = row.getValue();
+        if (item.getName() == null || item.getName().isBlank()) {
+            row.setError("Name is required");
+        } else if (item.getDescription() == null || item.getDescription().isBlank()) {
+            row.setError("Description is required");
+        } else if (item.getAvailable() == null) {
+            row.setError("Available is required");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForCreate;
+import ru.practicum.shareit.item.dto.ItemDtoForIndex;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,6 +23,7 @@ public class ItemMapper {
                 itemDtoForCreate.getDescription(),
                 itemDtoForCreate.getAvailable(),
                 null,
+                null,
                 null
         );
     }
@@ -37,6 +39,17 @@ public class ItemMapper {
         );
     }
 
+    public static ItemDtoForIndex mapToItemDtoForIndex(Item item) {
+        return new ItemDtoForIndex(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getRequest() != null ? item.getRequest().getId() : null,
+                item.getVersion() != null ? item.getVersion() : 0
+        );
+    }
+
     public static ItemDto mapToItemDto(Item item,
                                        BookingDtoForOwner last,
                                        BookingDtoForOwner next,
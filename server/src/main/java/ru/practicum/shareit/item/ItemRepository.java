@@ -3,16 +3,39 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDtoForCreate;
+import ru.practicum.shareit.item.dto.ItemDtoForIndex;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findItemsByOwnerIdOrderById(long userId, Pageable pageable);
 
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true")
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%'))) and i.available = true " +
+            "order by i.id")
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> getItemByRequestId(long id);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoForIndex(i.id, i.name, i.description, i.available, r.id, " +
+            "i.version) " +
+            "from Item i left join i.request r " +
+            "where i.id > ?1 " +
+            "order by i.id")
+    List<ItemDtoForIndex> findForSearchIndex(long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoForCreate(i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Item i " +
+            "where i.request.id in ?1 " +
+            "order by i.id")
+    List<ItemDtoForCreate> findItemsByRequestIds(Collection<Long> requestIds);
+
+    /**
+     * Items whose cached view shows the user: as the author of a comment or the requester of the item request.
+     */
+    @Query("select i.id from Item i left join i.request r " +
+            "where r.requester.id = ?1 " +
+            "or i.id in (select c.item.id from Comment c where c.author.id = ?1)")
+    List<Long> findIdsOfItemsShowingUser(long userId);
 }
@@ -0,0 +1,311 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDtoForCreate;
+import ru.practicum.shareit.item.dto.ItemDtoForIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the names and descriptions of available items.
+ * Keeps the substring semantics of {@link ItemRepository#search}: postings narrow the candidates down,
+ * then every candidate is checked with a plain case-insensitive {@code contains}.
+ * <p>
+ * Postings are sorted {@code long[]} arrays, about 10 bytes per distinct trigram of an item, and an item leaves
+ * every posting once it becomes unavailable. Updates carry the item's {@code @Version}, and one older than the
+ * indexed state is ignored, so commits of the same item applied out of order leave the newest text indexed.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    // guarded by lock
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item.search-index.enabled:true}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Its snapshot may predate an item committed while it runs; that commit has a higher version and wins.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long lastId = 0;
+        List<ItemDtoForIndex> chunk;
+        do {
+            chunk = itemRepository.findForSearchIndex(lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            put(chunk);
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+        ready = true;
+        lock.readLock().lock();
+        try {
+            log.info("Item search index loaded: {} items, {} grams", entries.size(), postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean canSearch(String text) {
+        return ready && text.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Matches in ascending id order. A query of exactly three characters is its own only trigram, so its
+     * posting is the answer and the page is read at the offset directly. Longer queries walk the shortest of
+     * their postings and check every candidate: a page costs time linear in its offset within that posting.
+     */
+    public List<ItemDtoForCreate> search(String text, long offset, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : gramsOf(query)) {
+                Postings ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Postings::size));
+            Postings shortest = lists.get(0);
+
+            List<ItemDtoForCreate> result = new ArrayList<>();
+            if (query.length() == GRAM_LENGTH) {
+                for (long i = offset; i < shortest.size() && result.size() < limit; i++) {
+                    result.add(entries.get(shortest.get((int) i)).toDto());
+                }
+                return result;
+            }
+            long skipped = 0;
+            for (int i = 0; i < shortest.size(); i++) {
+                long id = shortest.get(i);
+                if (!containsInAll(lists, id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (!entry.matches(query)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                result.add(entry.toDto());
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reindexes the item once the current transaction commits, or immediately outside of a transaction.
+     * The item is read after the commit, when its version has been incremented.
+     */
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(List.of(ItemMapper.mapToItemDtoForIndex(item)));
+                }
+            });
+        } else {
+            put(List.of(ItemMapper.mapToItemDtoForIndex(item)));
+        }
+    }
+
+    /**
+     * Same as {@link #index(Item)} for items written without Hibernate, e.g. by a bulk import.
+     */
+    public void index(List<ItemDtoForIndex> items) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(items);
+                }
+            });
+        } else {
+            put(items);
+        }
+    }
+
+    private void put(List<ItemDtoForIndex> items) {
+        lock.writeLock().lock();
+        try {
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // under the write lock
+    private void put(ItemDtoForIndex item) {
+        long id = item.getId();
+        Entry previous = entries.get(id);
+        if (previous != null && previous.version >= item.getVersion()) {
+            return;
+        }
+        Entry entry = new Entry(item);
+        entries.put(id, entry);
+        Set<String> grams = entry.grams();
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                if (!grams.contains(gram)) {
+                    Postings ids = postings.get(gram);
+                    if (ids != null && ids.remove(id) && ids.size() == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+    }
+
+    private static boolean containsInAll(List<Postings> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    /**
+     * Sorted ids of the items containing one trigram. Ids mostly arrive in ascending order, so adding is
+     * usually an append.
+     */
+    private static class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int at = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                at = -at - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            if (size < ids.length >> 2) {
+                ids = Arrays.copyOf(ids, Math.max(2, size << 1));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Only the version is kept for an unavailable item, to reject updates older than the one that hid it.
+     */
+    private static class Entry {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final long version;
+
+        Entry(ItemDtoForIndex item) {
+            boolean available = Boolean.TRUE.equals(item.getAvailable());
+            this.id = item.getId();
+            this.name = available && item.getName() != null ? item.getName() : "";
+            this.description = available && item.getDescription() != null ? item.getDescription() : "";
+            this.requestId = item.getRequestId();
+            this.version = item.getVersion();
+        }
+
+        boolean matches(String query) {
+            return name.toLowerCase(Locale.ROOT).contains(query)
+                    || description.toLowerCase(Locale.ROOT).contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> result = gramsOf(name.toLowerCase(Locale.ROOT));
+            result.addAll(gramsOf(description.toLowerCase(Locale.ROOT)));
+            return result;
+        }
+
+        ItemDtoForCreate toDto() {
+            return new ItemDtoForCreate(id, name, description, true, requestId);
+        }
+    }
+}
@@ -1,27 +1,37 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemViewCache.BookingWindow;
+import ru.practicum.shareit.item.ItemViewCache.ItemView;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForCreate;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.requests.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.booking.BookingMapper.mapToLastBooking;
+import static ru.practicum.shareit.booking.BookingMapper.mapToNextBooking;
 import static ru.practicum.shareit.item.CommentMapper.mapToComment;
 import static ru.practicum.shareit.item.CommentMapper.mapToCommentDto;
 import static ru.practicum.shareit.item.CommentMapper.mapToListCommentsDto;
@@ -34,34 +44,48 @@ import static ru.practicum.shareit.item.ItemMapper.mapToListItemDtoForCreate;
 @Service
 public class ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService bookingSummaryService;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemViewCache viewCache;
+    private final int commentsPerItem;
 
     public ItemService(ItemRepository itemRepository,
-                       UserRepository userRepository,
+                       UserCache userCache,
                        BookingRepository bookingRepository,
+                       ItemBookingSummaryService bookingSummaryService,
                        CommentRepository commentRepository,
-                       ItemRequestRepository itemRequestRepository) {
+                       ItemRequestRepository itemRequestRepository,
+                       ItemSearchIndex searchIndex,
+                       ItemViewCache viewCache,
+                       @Value("${shareit.item.comments-per-item:0}") int commentsPerItem) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.bookingRepository = bookingRepository;
+        this.bookingSummaryService = bookingSummaryService;
         this.commentRepository = commentRepository;
         this.requestRepository = itemRequestRepository;
+        this.searchIndex = searchIndex;
+        this.viewCache = viewCache;
+        this.commentsPerItem = commentsPerItem;
     }
 
     @Transactional
     public ItemDtoForCreate addNewItem(long userId, ItemDtoForCreate itemDtoForCreate) {
-        if (userRepository.existsById(userId)) {
+        Optional<User> owner = userCache.findById(userId);
+        if (owner.isPresent()) {
             Item item = ItemMapper.mapToItem(itemDtoForCreate);
             if (itemDtoForCreate.getRequestId() != null) {
                 ItemRequest request = requestRepository.findById(itemDtoForCreate.getRequestId())
                         .orElseThrow(() -> new NotFoundException("Request not found!!!"));
                 item.setRequest(request);
             }
-            item.setOwner(userRepository.findById(userId).orElseThrow());
+            item.setOwner(owner.get());
             itemRepository.save(item);
+            searchIndex.index(item);
             return mapToItemDtoForCreate(item);
         } else {
             throw new NotFoundException("User with id " + userId + " not found!");
@@ -69,15 +93,15 @@ public class ItemService {
     }
 
     public ItemDto getById(long itemId, long ownerId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Item not found!!!"));
-        List<Comment> comments = commentRepository.findCommentByItem_Id(itemId);
-        List<CommentDto> commentsDto = mapToListCommentsDto(comments);
-        if (ownerId == item.getOwner().getId()) {
-            List<Booking> bookings = bookingRepository.findBookingByItem_Id(itemId);
-            return mapToItemDto(item, createLastBooker(bookings, itemId), createNextBooker(bookings, itemId), commentsDto);
+        ItemView view = viewCache.getView(itemId, () -> loadView(itemId));
+        ItemDto item = view.getItem();
+        if (ownerId == view.getOwnerId()) {
+            BookingWindow bookings = viewCache.getBookings(itemId, () -> loadBookingWindow(itemId));
+            return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getRequest(), bookings.getLast(), bookings.getNext(), item.getComments());
         } else {
-            return mapToItemDto(item, null, null, commentsDto);
+            return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getRequest(), null, null, item.getComments());
         }
     }
 
@@ -105,6 +129,8 @@ public class ItemService {
             if (item.getRequest() != null) {
                 itemExisted.setRequest(item.getRequest());
             }
+            searchIndex.index(itemExisted);
+            viewCache.invalidate(itemId);
             return mapToItemDtoForCreate(itemExisted);
         } else {
             throw new NotFoundException("User don't have this item");
@@ -116,6 +142,9 @@ public class ItemService {
         Pageable pageable = PageRequest.of(page, size);
         List<ItemDtoForCreate> result;
         if (!text.isBlank()) {
+            if (searchIndex.canSearch(text)) {
+                return searchIndex.search(text, pageable.getOffset(), size);
+            }
             List<Item> itemsByNameOrDescriptionLikeIgnoreCase = itemRepository.search(text, pageable);
             result = mapToListItemDtoForCreate(itemsByNameOrDescriptionLikeIgnoreCase);
         } else {
@@ -124,79 +153,75 @@ public class ItemService {
         return result;
     }
 
-    private BookingDtoForOwner createLastBooker(List<Booking> bookings, long itemId) {
-        BookingDtoForOwner last = new BookingDtoForOwner();
-        for (Booking booking : bookings) {
-            if (booking.getItem().getId().equals(itemId)) {
-                if (booking.getEnd().isBefore(LocalDateTime.now())) {
-                    last.setId(booking.getId());
-                    last.setBookerId(booking.getBooker().getId());
-                    last.setStartTime(booking.getStart());
-                    last.setEndTime(booking.getEnd());
-                    break;
-                }
-            } else {
-                return null;
-            }
-        }
-        return last;
+    private ItemView loadView(long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found!!!"));
+        List<CommentDto> commentsDto = findCommentsByItemIds(List.of(itemId)).get(itemId);
+        return new ItemView(item.getOwner().getId(), mapToItemDto(item, null, null, commentsDto));
     }
 
-    private BookingDtoForOwner createNextBooker(List<Booking> bookings, long itemId) {
-        BookingDtoForOwner next = new BookingDtoForOwner();
-        for (Booking booking : bookings) {
-            if (booking.getItem().getId().equals(itemId)) {
-                if (booking.getStart().isAfter(LocalDateTime.now())) {
-                    next.setId(booking.getId());
-                    next.setBookerId(booking.getBooker().getId());
-                    next.setStartTime(booking.getStart());
-                    next.setEndTime(booking.getEnd());
-                    break;
-                }
-            } else {
-                return null;
-            }
-        }
-        return next;
+    private BookingWindow loadBookingWindow(long itemId) {
+        ItemBookingSummary summary = bookingSummaryService.findByItemIds(List.of(itemId)).get(itemId);
+        return new BookingWindow(mapToLastBooking(summary), mapToNextBooking(summary),
+                summary != null ? summary.getValidUntil() : null);
     }
 
     @Transactional
     public CommentDto createComment(long itemId, long userId, CommentDto commentDto) {
         List<Booking> bookings = bookingRepository.findBookingByBooker_IdAndItem_Id(userId, itemId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ValidationException("Item not found!!!"));
-        User author = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found!!!"));
+        User author = userCache.findById(userId).orElseThrow(() -> new NotFoundException("User not found!!!"));
         Comment comment = mapToComment(commentDto, author, item);
         for (Booking booking : bookings) {
             if (booking.getEnd().isBefore(LocalDateTime.now())) {
-                item = itemRepository.findById(itemId).orElseThrow();
-                author = userRepository.findById(userId).orElseThrow();
-                comment.setItem(item);
-                comment.setAuthor(author);
                 break;
             } else {
                 throw new ValidationException("Booking not end!");
             }
         }
-        return mapToCommentDto(commentRepository.save(comment));
+        CommentDto saved = mapToCommentDto(commentRepository.save(comment));
+        viewCache.invalidate(itemId);
+        return saved;
     }
 
     public List<ItemDto> getAllItemsOfOneUser(long userId, Integer from, Integer size) {
         int page = from < size ? 0 : from / size;
         Pageable pageable = PageRequest.of(page, size);
         List<ItemDto> result = new ArrayList<>();
-        List<Booking> bookings = bookingRepository.findBookingByItem_OwnerId(userId);
 
-        if (userRepository.existsById(userId)) {
+        if (userCache.existsById(userId)) {
             List<Item> allItemsOfOneUser = itemRepository.findItemsByOwnerIdOrderById(userId, pageable);
+            List<Long> itemIds = allItemsOfOneUser.stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            Map<Long, ItemBookingSummary> bookings = bookingSummaryService.findByItemIds(itemIds);
+            Map<Long, List<CommentDto>> comments = findCommentsByItemIds(itemIds);
             for (Item item : allItemsOfOneUser) {
-                List<Comment> comments = commentRepository.findCommentByItem_Id(item.getId());
-                List<CommentDto> commentsDto = mapToListCommentsDto(comments);
-                result.add(mapToItemDto(item, createLastBooker(bookings, item.getId()),
-                        createNextBooker(bookings, item.getId()), commentsDto));
+                ItemBookingSummary summary = bookings.get(item.getId());
+                result.add(mapToItemDto(item, mapToLastBooking(summary), mapToNextBooking(summary),
+                        comments.get(item.getId())));
             }
             return result;
         } else {
             throw new NotFoundException("User with id " + userId + " not found!");
         }
     }
+
+    private Map<Long, List<CommentDto>> findCommentsByItemIds(List<Long> itemIds) {
+        Map<Long, List<Comment>> comments = new HashMap<>();
+        for (Long itemId : itemIds) {
+            comments.put(itemId, new ArrayList<>());
+        }
+        if (!itemIds.isEmpty()) {
+            List<Comment> found = commentsPerItem > 0
+                    ? commentRepository.findLatestCommentsByItemIds(itemIds, commentsPerItem)
+                    : commentRepository.findCommentsByItemIds(itemIds);
+            for (Comment comment : found) {
+                comments.get(comment.getItem().getId()).add(comment);
+            }
+        }
+        Map<Long, List<CommentDto>> result = new HashMap<>();
+        comments.forEach((itemId, itemComments) -> result.put(itemId, mapToListCommentsDto(itemComments)));
+        return result;
+    }
 }
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Assembled views for GET /items/{id}: the public part (item and comments) and the owner-only
+ * last/next booking window, which is dropped as soon as the current time reaches one of its boundaries.
+ * Loads racing with an invalidation are not kept: every invalidation bumps the generation of the
+ * item's stripe and a load that saw another generation evicts what it has just put.
+ */
+@Component
+public class ItemViewCache {
+    public static final String ITEM_VIEWS = "itemViews";
+    public static final String ITEM_BOOKINGS = "itemBookingWindows";
+    private static final int STRIPES = 64;
+
+    private final Cache views;
+    private final Cache bookings;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public ItemViewCache(CacheManager cacheManager) {
+        this.views = Objects.requireNonNull(cacheManager.getCache(ITEM_VIEWS), "Cache " + ITEM_VIEWS + " is not configured");
+        this.bookings = Objects.requireNonNull(cacheManager.getCache(ITEM_BOOKINGS), "Cache " + ITEM_BOOKINGS + " is not configured");
+    }
+
+    public ItemView getView(long itemId, Supplier<ItemView> loader) {
+        ItemView view = views.get(itemId, ItemView.class);
+        return view != null ? view : load(views, itemId, loader);
+    }
+
+    public BookingWindow getBookings(long itemId, Supplier<BookingWindow> loader) {
+        BookingWindow window = bookings.get(itemId, BookingWindow.class);
+        if (window != null && window.isValidAt(LocalDateTime.now())) {
+            return window;
+        }
+        return load(bookings, itemId, loader);
+    }
+
+    /**
+     * Drops both views of the item now and once more after the surrounding transaction completes.
+     */
+    public void invalidate(long itemId) {
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    private void evict(long itemId) {
+        generations.incrementAndGet(stripe(itemId));
+        views.evict(itemId);
+        bookings.evict(itemId);
+    }
+
+    private <T> T load(Cache cache, long itemId, Supplier<T> loader) {
+        int stripe = stripe(itemId);
+        long generation = generations.get(stripe);
+        T value = loader.get();
+        cache.put(itemId, value);
+        if (generations.get(stripe) != generation) {
+            cache.evict(itemId);
+        }
+        return value;
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) STRIPES);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemView {
+        private final long ownerId;
+        private final ItemDto item;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BookingWindow {
+        private final BookingDtoForOwner last;
+        private final BookingDtoForOwner next;
+        /**
+         * Earliest moment the window changes: start of the next booking or end of a booking not yet finished.
+         * Null when no such booking exists.
+         */
+        private final LocalDateTime validUntil;
+
+        boolean isValidAt(LocalDateTime now) {
+            return validUntil == null || now.isBefore(validUntil);
+        }
+    }
+}
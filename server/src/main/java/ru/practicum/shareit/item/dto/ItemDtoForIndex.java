@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item state for the search index; {@code version} orders concurrent updates of one item.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemDtoForIndex {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private long version;
+}
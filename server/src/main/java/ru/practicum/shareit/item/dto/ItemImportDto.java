@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of a bulk item import; ownerId defaults to the X-Sharer-User-Id of the request and may not differ from it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportDto {
+    private Long ownerId;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+}
@@ -3,16 +3,29 @@ package ru.practicum.shareit.requests;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requester")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<ItemRequest> getItemRequestByRequester_Id(Long requesterId, Sort sort);
 
+    @EntityGraph(attributePaths = "requester")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT i\n"
             + "FROM ItemRequest i\n"
             + "WHERE i.requester.id <> ?1")
     Page<ItemRequest> findAllWithoutUserRequests(Long userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
 }
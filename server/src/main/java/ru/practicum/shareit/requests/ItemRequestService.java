@@ -6,17 +6,16 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDtoForCreate;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.user.UserDto;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.requests.ItemRequestsMapper.mapToItemRequest;
@@ -26,21 +25,21 @@ import static ru.practicum.shareit.user.UserMapper.mapToUserDto;
 
 @Service
 public class ItemRequestService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
 
-    public ItemRequestService(UserRepository userRepository,
+    public ItemRequestService(UserCache userCache,
                               ItemRequestRepository itemRequestRepository,
                               ItemRepository itemRepository) {
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.itemRequestRepository = itemRequestRepository;
         this.itemRepository = itemRepository;
     }
 
     @Transactional
     public ItemRequestDto addRequest(Long userId, ItemRequestDto itemRequestDto) {
-        UserDto user = mapToUserDto(userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found!!!")));
+        UserDto user = mapToUserDto(userCache.findById(userId).orElseThrow(() -> new NotFoundException("User not found!!!")));
 
         itemRequestDto.setRequester(user);
         itemRequestDto.setCreated(LocalDateTime.now());
@@ -50,22 +49,11 @@ public class ItemRequestService {
     }
 
     public List<ItemRequestDtoWithItems> getRequestsOfCurrentUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userCache.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d not found!!!", userId));
         }
-        return itemRequestRepository.getItemRequestByRequester_Id(userId,
-                        Sort.by(Sort.Direction.DESC, "created")).stream()
-                .map(itemRequest -> mapToItemRequestDtoWithItems(itemRequest,
-                        getItemsByRequestId(itemRequest.getId())))
-                .collect(Collectors.toList());
-    }
-
-    private List<ItemDtoForCreate> getItemsByRequestId(long requestId) {
-        List<Item> items = itemRepository.getItemByRequestId(requestId);
-
-        return items.stream()
-                .map(ItemMapper::mapToItemDtoForCreate)
-                .collect(Collectors.toList());
+        return mapWithItems(itemRequestRepository.getItemRequestByRequester_Id(userId,
+                Sort.by(Sort.Direction.DESC, "created")));
     }
 
     public List<ItemRequestDtoWithItems> getAllRequests(Long userId, Integer from, Integer size) {
@@ -75,17 +63,28 @@ public class ItemRequestService {
                         userId,
                         PageRequest.of(page, size, Sort.by("created").descending())
                 );
-        return requests.stream()
-                .map(r -> mapToItemRequestDtoWithItems(r, getItemsByRequestId(r.getId())))
-                .collect(Collectors.toList());
+        return mapWithItems(requests.getContent());
     }
 
     public ItemRequestDtoWithItems getRequestById(long requestId, long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userCache.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d not found!!!", userId));
         }
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Request with id %d not found!!!", requestId)));
-        return mapToItemRequestDtoWithItems(itemRequest, getItemsByRequestId(itemRequest.getId()));
+        return mapWithItems(List.of(itemRequest)).get(0);
+    }
+
+    private List<ItemRequestDtoWithItems> mapWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemDtoForCreate>> items = itemRepository.findItemsByRequestIds(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(ItemDtoForCreate::getRequestId));
+        return requests.stream()
+                .map(r -> mapToItemRequestDtoWithItems(r, items.getOrDefault(r.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
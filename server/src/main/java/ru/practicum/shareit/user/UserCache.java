@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Detached snapshots of users for existence checks and for setting owner, booker and author references.
+ * Size and TTL come from spring.cache.caffeine.spec, hit and miss counters are exposed as cache.gets metrics.
+ * Snapshots are shared between requests and must not be modified.
+ * Loads racing with an eviction are not kept: every eviction bumps the generation of the user's stripe
+ * and a load that saw another generation evicts what it has just put.
+ */
+@Component
+public class UserCache {
+    public static final String USERS = "users";
+    private static final int STRIPES = 64;
+
+    private final UserRepository repository;
+    private final Cache cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public UserCache(UserRepository repository, CacheManager cacheManager) {
+        this.repository = repository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(USERS), "Cache " + USERS + " is not configured");
+    }
+
+    public Optional<User> findById(long userId) {
+        User user = cache.get(userId, User.class);
+        if (user == null) {
+            int stripe = stripe(userId);
+            long generation = generations.get(stripe);
+            user = repository.findById(userId)
+                    .map(UserCache::snapshot)
+                    .orElse(null);
+            if (user != null) {
+                cache.put(userId, user);
+                if (generations.get(stripe) != generation) {
+                    cache.evict(userId);
+                }
+            }
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public boolean existsById(long userId) {
+        return findById(userId).isPresent();
+    }
+
+    /**
+     * Evicts now and once more after the surrounding transaction completes.
+     */
+    public void evict(long userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(long userId) {
+        generations.incrementAndGet(stripe(userId));
+        cache.evict(userId);
+    }
+
+    private static int stripe(long userId) {
+        return (int) Math.floorMod(userId, (long) STRIPES);
+    }
+
+    private static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,9 +9,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +24,11 @@ import java.util.Optional;
 @RestController
 public class UserController {
     final UserServiceImpl userService;
+    final UserImportService userImportService;
 
-    public UserController(UserServiceImpl userService) {
+    public UserController(UserServiceImpl userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping
@@ -28,6 +36,15 @@ public class UserController {
         return userService.addNewUser(userDto);
     }
 
+    /**
+     * Creates users from a JSON array or NDJSON body, reporting the outcome of every row.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkResultDto addUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                  InputStream body) throws IOException {
+        return userImportService.addNewUsers(body, contentType);
+    }
+
     @GetMapping("/{userId}")
     public Optional<User> getUserById(@PathVariable long userId) {
         return userService.getById(userId);
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.bulk.BulkReader;
+import ru.practicum.shareit.bulk.BulkRow;
+import ru.practicum.shareit.bulk.BulkWriter;
+import ru.practicum.shareit.bulk.JdbcBatchInserter;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of users: every chunk is validated, checked for taken emails with one query
+ * and inserted in one JDBC batch. Each chunk commits on its own and a bad row fails alone.
+ */
+@Transactional(readOnly = true)
+@Service
+public class UserImportService {
+    private static final String INSERT = "INSERT INTO users (name, email) VALUES (?, ?)";
+    private static final int[] TYPES = {Types.VARCHAR, Types.VARCHAR};
+
+    private final UserRepository repository;
+    private final BulkReader reader;
+    private final BulkWriter writer;
+    private final JdbcBatchInserter inserter;
+
+    public UserImportService(UserRepository repository, BulkReader reader, BulkWriter writer,
+                             JdbcBatchInserter inserter) {
+        this.repository = repository;
+        this.reader = reader;
+        this.writer = writer;
+        this.inserter = inserter;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResultDto addNewUsers(InputStream body, MediaType contentType) throws IOException {
+        BulkResultDto result = new BulkResultDto();
+        reader.read(body, contentType, UserDto.class, chunk -> addChunk(chunk, result));
+        return result;
+    }
+
+    private void addChunk(List<BulkRow<UserDto>> chunk, BulkResultDto result) {
+        chunk.stream().filter(BulkRow::isValid).forEach(UserImportService::validate);
+        Set<String> emails = chunk.stream()
+                .filter(BulkRow::isValid)
+                .map(row -> row.getValue().getEmail())
+                .collect(Collectors.toSet());
+        Set<String> taken = emails.isEmpty() ? Set.of() : new HashSet<>(repository.findExistingEmails(emails));
+        Set<String> seen = new HashSet<>();
+        List<BulkRow<UserDto>> rows = new ArrayList<>();
+        for (BulkRow<UserDto> row : chunk) {
+            if (!row.isValid()) {
+                continue;
+            }
+            String email = row.getValue().getEmail();
+            if (taken.contains(email) || !seen.add(email)) {
+                row.setError("Email " + email + " is already used");
+            } else {
+                rows.add(row);
+            }
+        }
+        writer.write(rows, this::insert);
+        for (BulkRow<UserDto> row : chunk) {
+            if (row.isValid()) {
+                result.created(row.getRow(), row.getId());
+            } else {
+                result.failed(row.getRow(), row.getError());
+            }
+        }
+    }
+
+    private void insert(List<BulkRow<UserDto>> rows) {
+        List<Long> ids = inserter.insert(INSERT, TYPES, rows.stream()
+                .map(row -> new Object[]{row.getValue().getName(), row.getValue().getEmail()})
+                .collect(Collectors.toList()));
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(ids.get(i));
+        }
+    }
+
+    private static void validate(BulkRow<UserDto> row) {
+        UserDto user = row.getValue();
+        if (user.getName() == null || user.getName().isBlank()) {
+            row.setError("Name is required");
+        } else if (user.getEmail() == null || !user.getEmail().matches("[^@\\s]+@[^@\\s]+")) {
+            row.setError("Email is invalid");
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("select u.id from User u where u.id in ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("select u.email from User u where u.email in ?1")
+    List<String> findExistingEmails(Collection<String> emails);
 }
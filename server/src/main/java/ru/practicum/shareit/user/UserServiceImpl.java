@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,9 +19,16 @@ import static ru.practicum.shareit.user.UserMapper.mapToUserDto;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemViewCache itemViewCache;
 
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, UserCache userCache, ItemRepository itemRepository,
+                           ItemViewCache itemViewCache) {
         this.repository = repository;
+        this.userCache = userCache;
+        this.itemRepository = itemRepository;
+        this.itemViewCache = itemViewCache;
     }
 
     @Transactional
@@ -43,6 +52,9 @@ public class UserServiceImpl implements UserService {
         if (user.getName() != null) {
             userExisting.setName(user.getName());
         }
+        userCache.evict(userID);
+        // cached item views carry the names of comment authors and the requester of the item request
+        itemRepository.findIdsOfItemsShowingUser(userID).forEach(itemViewCache::invalidate);
         return mapToUserDto(userExisting);
     }
 
@@ -50,6 +62,7 @@ public class UserServiceImpl implements UserService {
     public void delete(long userID) {
         if (repository.existsById(userID)) {
             repository.deleteById(userID);
+            userCache.evict(userID);
         } else {
             throw new NotFoundException("User not found!!!");
 
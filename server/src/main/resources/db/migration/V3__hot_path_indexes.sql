@@ -0,0 +1,15 @@
+-- /bookings: booker_id filter, newest first, optionally by status
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+-- /bookings/owner (through items.owner_id), last/next booking and overlap index load per item
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status ON bookings (item_id, status);
+-- owner item pages
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+-- items attached to requests
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+-- comments of an item page
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id, id);
+-- requests of the current user, newest first
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC);
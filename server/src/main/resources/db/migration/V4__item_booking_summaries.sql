@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS item_booking_summaries
+(
+    item_id         BIGINT REFERENCES items (id) NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_start      TIMESTAMP,
+    last_end        TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start      TIMESTAMP,
+    next_end        TIMESTAMP,
+    valid_until     TIMESTAMP,
+    version         BIGINT DEFAULT 0             NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id)
+);
+-- sweeper picks rows whose window has passed
+CREATE INDEX IF NOT EXISTS ix_item_booking_summaries_valid_until ON item_booking_summaries (valid_until);
+-- existing bookings start out expired, so the first sweep (or read) computes them
+INSERT INTO item_booking_summaries (item_id, valid_until)
+SELECT DISTINCT item_id, TIMESTAMP '1970-01-01 00:00:00'
+FROM bookings
+WHERE item_id NOT IN (SELECT item_id FROM item_booking_summaries);
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final long ITEM_ID = 1L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void sweepPrunesEndedBookings() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 600_000);
+        when(bookingRepository.findByItemIdAndStatuses(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                new BookingDtoForItem(ITEM_ID, 1L, 2L, now.minusDays(2), now.minusDays(1)),
+                new BookingDtoForItem(ITEM_ID, 2L, 2L, now.plusDays(1), now.plusDays(2))));
+        index.reserve(ITEM_ID, now.plusDays(3), now.plusDays(4), () -> booking(3L));
+
+        index.sweep();
+
+        index.reserve(ITEM_ID, now.minusDays(2), now.minusDays(1), () -> booking(4L));
+        assertThrows(ValidationException.class,
+                () -> index.reserve(ITEM_ID, now.plusDays(1), now.plusDays(2), () -> booking(5L)));
+        verify(bookingRepository, times(1)).findByItemIdAndStatuses(eq(ITEM_ID), anyCollection());
+    }
+
+    @Test
+    void sweepEvictsIdleItemsWhichReloadOnNextUse() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 0);
+        when(bookingRepository.findByItemIdAndStatuses(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+        index.reserve(ITEM_ID, now.plusDays(1), now.plusDays(2), () -> booking(1L));
+        when(bookingRepository.findByItemIdAndStatuses(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                new BookingDtoForItem(ITEM_ID, 1L, 2L, now.plusDays(1), now.plusDays(2))));
+
+        index.sweep();
+
+        assertThrows(ValidationException.class,
+                () -> index.reserve(ITEM_ID, now.plusDays(1), now.plusDays(2), () -> booking(2L)));
+        verify(bookingRepository, times(2)).findByItemIdAndStatuses(eq(ITEM_ID), anyCollection());
+    }
+
+    private static Booking booking(long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        return booking;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.HibernateCacheConfig;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.booking.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.inState;
+
+/**
+ * Counts the statements a booking listing costs: one select per page, whatever the state.
+ */
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@ActiveProfiles("test")
+class BookingRepositoryTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager em;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Booking current;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        owner = em.persist(new User(null, "Owner", "owner@repository.ru"));
+        booker = em.persist(new User(null, "Booker", "booker@repository.ru"));
+        Item item = new Item();
+        item.setName("Saw");
+        item.setDescription("Hand saw");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(booking(item, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        current = em.persist(booking(item, now.minusHours(1), now.plusHours(1), BookingStatus.APPROVED));
+        em.persist(booking(item, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING));
+        em.persist(booking(item, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED));
+        em.flush();
+        em.clear();
+        em.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void bookerPageIsOneStatement(State state) {
+        List<BookingDtoForList> page = bookingRepository.findForList(
+                byBooker(booker.getId()).and(inState(state, LocalDateTime.now())), 0, 10);
+
+        assertFalse(page.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void ownerPageIsOneStatement(State state) {
+        List<BookingDtoForList> page = bookingRepository.findForList(
+                byItemOwner(owner.getId()).and(inState(state, LocalDateTime.now())), 0, 10);
+
+        assertFalse(page.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingIsLoadedWithItemAndBookerInOneStatement() {
+        Booking booking = bookingRepository.findById(current.getId()).orElseThrow();
+
+        assertEquals("Saw", booking.getItem().getName());
+        assertEquals("Booker", booking.getBooker().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return booking;
+    }
+}
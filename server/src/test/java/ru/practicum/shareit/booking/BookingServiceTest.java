@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingServiceTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void unknownCursorIsRejected() throws Exception {
+        User user = userRepository.save(new User(null, "Cursor", "cursor@bookings.ru"));
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", user.getId()).param("after", "999999"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown booking cursor 999999!!!"));
+        mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", user.getId()).param("after", "999999"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void foreignCursorIsRejected() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@cursor.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@cursor.ru"));
+        User stranger = userRepository.save(new User(null, "Stranger", "stranger@cursor.ru"));
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        String after = String.valueOf(bookingRepository.save(booking).getId());
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("after", after))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()).param("after", after))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", stranger.getId()).param("after", after))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown booking cursor " + after + "!!!"));
+        mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", booker.getId()).param("after", after))
+                .andExpect(status().isBadRequest());
+    }
+}
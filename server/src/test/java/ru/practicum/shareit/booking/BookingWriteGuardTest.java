@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingWriteGuardTest {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BookingWriteGuard guard = new BookingWriteGuard(transactionManager, "striped", 64, 1000, 3);
+
+    BookingWriteGuardTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void duplicateSummaryIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = guard.execute(1L, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw violation("23505", "duplicate key value violates unique constraint \"pk_item_booking_summary\"");
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void otherConstraintViolationIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(DataIntegrityViolationException.class, () -> guard.execute(1L, () -> {
+            attempts.incrementAndGet();
+            throw violation("23503", "insert or update on table \"bookings\" violates foreign key constraint");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState, String message) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(message, sqlState));
+    }
+}
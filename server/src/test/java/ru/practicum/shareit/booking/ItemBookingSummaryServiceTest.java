@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForCreated;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = "shareit.booking.locking.mode=optimistic")
+@ActiveProfiles("test")
+class ItemBookingSummaryServiceTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @SpyBean
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Test
+    void concurrentFirstBookingsOfItemBothSucceed() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@summary.ru"));
+        User first = userRepository.save(new User(null, "First", "first@summary.ru"));
+        User second = userRepository.save(new User(null, "Second", "second@summary.ru"));
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        Long itemId = itemRepository.save(item).getId();
+
+        // both writers look the summary row up before either inserts it
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicInteger lookups = new AtomicInteger();
+        Answer<?> repository = mockingDetails(summaryRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            if (lookups.incrementAndGet() <= 2) {
+                barrier.await(10, TimeUnit.SECONDS);
+            }
+            return repository.answer(invocation);
+        }).when(summaryRepository).findById(itemId);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BookingDto> early = executor.submit(() -> bookingService.createBooking(first.getId(),
+                    new BookingDtoForCreated(0, itemId, start, start.plusHours(1))));
+            Future<BookingDto> late = executor.submit(() -> bookingService.createBooking(second.getId(),
+                    new BookingDtoForCreated(0, itemId, start.plusHours(2), start.plusHours(3))));
+
+            Long earlyId = early.get(30, TimeUnit.SECONDS).getId();
+            late.get(30, TimeUnit.SECONDS);
+
+            assertEquals(earlyId, summaryRepository.findById(itemId).orElseThrow().getNextBookingId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
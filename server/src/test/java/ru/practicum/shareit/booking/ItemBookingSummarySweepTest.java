@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemBookingSummarySweepTest {
+    private final ItemBookingSummaryRepository summaryRepository = mock(ItemBookingSummaryRepository.class);
+    private final BookingWriteGuard writeGuard = mock(BookingWriteGuard.class);
+
+    @Test
+    void busyItemDoesNotStopTheSweep() {
+        ItemBookingSummaryService service = service(10);
+        when(summaryRepository.findExpiredItemIds(any(), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(writeGuard.execute(eq(1L), any())).thenThrow(new ConflictException("busy"));
+
+        service.sweep();
+
+        verify(writeGuard).execute(eq(2L), any());
+        verify(writeGuard).execute(eq(3L), any());
+    }
+
+    @Test
+    void batchOfBusyItemsEndsTheSweep() {
+        ItemBookingSummaryService service = service(2);
+        when(summaryRepository.findExpiredItemIds(any(), any())).thenReturn(List.of(1L, 2L));
+        when(writeGuard.execute(anyLong(), any())).thenThrow(new ConflictException("busy"));
+
+        service.sweep();
+
+        verify(writeGuard, times(2)).execute(anyLong(), any());
+        verify(summaryRepository, times(1)).findExpiredItemIds(any(), any());
+    }
+
+    private ItemBookingSummaryService service(int batchSize) {
+        return new ItemBookingSummaryService(summaryRepository, mock(BookingRepository.class), writeGuard, batchSize);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.HibernateCacheConfig;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@ActiveProfiles("test")
+class CommentRepositoryTest {
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void latestCommentsAreCappedPerItem() {
+        User author = em.persist(new User(null, "Author", "author@comments.ru"));
+        Item busy = em.persist(item(author, "Busy"));
+        Item quiet = em.persist(item(author, "Quiet"));
+        for (int i = 1; i <= 4; i++) {
+            em.persist(Comment.builder().text("busy " + i).item(busy).author(author).build());
+        }
+        em.persist(Comment.builder().text("quiet 1").item(quiet).author(author).build());
+        em.flush();
+        em.clear();
+
+        List<String> texts = commentRepository.findLatestCommentsByItemIds(List.of(busy.getId(), quiet.getId()), 2)
+                .stream()
+                .map(Comment::getText)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("busy 3", "busy 4", "quiet 1"), texts);
+    }
+
+    private static Item item(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+}
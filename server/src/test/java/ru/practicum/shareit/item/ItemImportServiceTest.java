@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemImportServiceTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void itemsCantBeImportedForAnotherUser() throws Exception {
+        User caller = userRepository.save(new User(null, "Caller", "caller@import.ru"));
+        User victim = userRepository.save(new User(null, "Victim", "victim@import.ru"));
+        String body = "["
+                + "{\"name\":\"Own\",\"description\":\"Own\",\"available\":true},"
+                + "{\"ownerId\":" + victim.getId() + ",\"name\":\"Foreign\",\"description\":\"Foreign\","
+                + "\"available\":true}"
+                + "]";
+
+        mvc.perform(post("/items/bulk").header("X-Sharer-User-Id", caller.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.rows[?(@.row == 2)].error")
+                        .value(contains("Items can only be imported for the calling user")));
+
+        assertEquals(0, itemRepository.findAll().stream()
+                .filter(item -> item.getOwner().getId().equals(victim.getId()))
+                .count());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.HibernateCacheConfig;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@ActiveProfiles("test")
+class ItemRepositoryTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void itemsShowingUserAreThoseTheyCommentedOrRequested() {
+        User owner = em.persist(new User(null, "Owner", "owner@showing.ru"));
+        User user = em.persist(new User(null, "User", "user@showing.ru"));
+        ItemRequest request = em.persist(new ItemRequest(null, "Need a drill", user, LocalDateTime.now()));
+        Item commented = em.persist(item(owner, "Commented", null));
+        Item requested = em.persist(item(owner, "Requested", request));
+        Item both = em.persist(item(owner, "Both", request));
+        em.persist(item(owner, "Unrelated", null));
+        em.persist(Comment.builder().text("nice").item(commented).author(user).build());
+        em.persist(Comment.builder().text("again").item(both).author(user).build());
+        em.persist(Comment.builder().text("twice").item(both).author(user).build());
+        em.flush();
+        em.clear();
+
+        List<Long> ids = itemRepository.findIdsOfItemsShowingUser(user.getId());
+
+        assertEquals(3, ids.size());
+        assertEquals(Set.of(commented.getId(), requested.getId(), both.getId()), Set.copyOf(ids));
+    }
+
+    private static Item item(User owner, String name, ItemRequest request) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoForCreate;
+import ru.practicum.shareit.item.dto.ItemDtoForIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ItemSearchIndexTest {
+    private final ItemSearchIndex index = new ItemSearchIndex(mock(ItemRepository.class), true);
+
+    @Test
+    void itemLeavesTheIndexWhenItBecomesUnavailable() {
+        index.index(List.of(item(1, "Drill", true, 0)));
+        index.index(List.of(item(1, "Drill", false, 1)));
+
+        assertEquals(List.of(), ids("drill", 0, 10));
+        assertEquals(List.of(), ids("dri", 0, 10));
+    }
+
+    @Test
+    void olderUpdateArrivingLateIsIgnored() {
+        index.index(List.of(item(1, "Hammer", true, 2)));
+        index.index(List.of(item(1, "Drill", true, 1)));
+
+        assertEquals(List.of(1L), ids("hammer", 0, 10));
+        assertEquals(List.of(), ids("drill", 0, 10));
+    }
+
+    @Test
+    void threeCharacterQueryIsPagedFromItsPosting() {
+        for (long id = 5; id >= 1; id--) {
+            index.index(List.of(item(id, "Saw " + id, true, 0)));
+        }
+
+        assertEquals(List.of(3L, 4L), ids("SAW", 2, 2));
+        assertEquals(List.of(5L), ids("saw", 4, 2));
+    }
+
+    @Test
+    void candidatesWithAllGramsButNoSubstringAreSkipped() {
+        index.index(List.of(item(1, "dri ril ill", true, 0), item(2, "drill", true, 0), item(3, "Drills", true, 0)));
+
+        assertEquals(List.of(2L, 3L), ids("drill", 0, 10));
+        assertEquals(List.of(3L), ids("drill", 1, 10));
+    }
+
+    private List<Long> ids(String text, long offset, int limit) {
+        return index.search(text, offset, limit).stream()
+                .map(ItemDtoForCreate::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemDtoForIndex item(long id, String name, boolean available, long version) {
+        return new ItemDtoForIndex(id, name, name, available, null, version);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserCache userCache = new UserCache(repository, new ConcurrentMapCacheManager(UserCache.USERS));
+
+    @Test
+    void snapshotLoadedBeforeAnEvictionIsNotKept() {
+        // the writer commits and evicts while the reader still holds the old row
+        when(repository.findById(1L))
+                .thenAnswer(invocation -> {
+                    userCache.evict(1L);
+                    return Optional.of(new User(1L, "Old", "old@cache.ru"));
+                })
+                .thenReturn(Optional.of(new User(1L, "New", "new@cache.ru")));
+
+        assertEquals("Old", userCache.findById(1L).orElseThrow().getName());
+        assertEquals("New", userCache.findById(1L).orElseThrow().getName());
+        assertEquals("New", userCache.findById(1L).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserImportServiceTest {
+    @Autowired
+    private MockMvc mvc;
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void nullMalformedAndDuplicateArrayRowsFailAlone() throws Exception {
+        String body = "["
+                + "{\"name\":\"Ann\",\"email\":\"ann@array.ru\"},"
+                + "null,"
+                + "{\"name\":\"Bob\",\"email\":{\"not\":\"a string\"}},"
+                + "{\"name\":\"Ann again\",\"email\":\"ann@array.ru\"},"
+                + "{\"name\":\"Dan\",\"email\":\"dan@array.ru\"}"
+                + "]";
+
+        mvc.perform(post("/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.rows[?(@.row == 2)].error").value(contains("Row must be an object")))
+                .andExpect(jsonPath("$.rows[?(@.row == 3)].error").value(contains(startsWith("Malformed row"))))
+                .andExpect(jsonPath("$.rows[?(@.row == 4)].error")
+                        .value(contains("Email ann@array.ru is already used")));
+    }
+
+    @Test
+    void nullMalformedAndDuplicateLinesFailAlone() throws Exception {
+        String body = "{\"name\":\"Eve\",\"email\":\"eve@lines.ru\"}\n"
+                + "null\n"
+                + "{\"name\":\"Fay\",\"email\":\n"
+                + "{\"name\":\"Eve again\",\"email\":\"eve@lines.ru\"}\n"
+                + "{\"name\":\"Gus\",\"email\":\"gus@lines.ru\"}\n";
+
+        mvc.perform(post("/users/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.rows[?(@.row == 2)].error").value(contains("Row must be an object")))
+                .andExpect(jsonPath("$.rows[?(@.row == 3)].error").value(contains(startsWith("Malformed row"))))
+                .andExpect(jsonPath("$.rows[?(@.row == 4)].error")
+                        .value(contains("Email eve@lines.ru is already used")));
+    }
+
+    @Test
+    void chunkRejectedByDatabaseIsRetriedRowByRow() throws Exception {
+        userRepository.save(new User(null, "Taken", "taken@fallback.ru"));
+        // the email check misses the taken email, so only the unique constraint catches it
+        doReturn(List.of()).when(userRepository).findExistingEmails(anyCollection());
+        String body = "["
+                + "{\"name\":\"Hal\",\"email\":\"hal@fallback.ru\"},"
+                + "{\"name\":\"Ivy\",\"email\":\"taken@fallback.ru\"},"
+                + "{\"name\":\"Jon\",\"email\":\"jon@fallback.ru\"}"
+                + "]";
+
+        mvc.perform(post("/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.rows[?(@.row == 2)].error")
+                        .value(contains(startsWith("Rejected by the database"))));
+
+        assertEquals(3, userRepository.findAll().stream()
+                .filter(user -> user.getEmail().endsWith("@fallback.ru"))
+                .count());
+    }
+}